@@ -9,25 +9,248 @@
 package com.bm.dvdlibrary;
 
 import com.bm.dvdlibrary.controller.DVDLibraryController;
+import com.bm.dvdlibrary.controller.DVDLibraryHttpServer;
+import com.bm.dvdlibrary.controller.DVDLibraryScriptController;
+import com.bm.dvdlibrary.controller.DVDLibrarySessionServer;
+import com.bm.dvdlibrary.dao.DVDLibraryAsyncDao;
+import com.bm.dvdlibrary.dao.DVDLibraryAsyncDaoImpl;
 import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
 import com.bm.dvdlibrary.dao.DVDLibraryDaoImpl;
+import com.bm.dvdlibrary.dao.DVDLibraryIndexedDao;
+import com.bm.dvdlibrary.dao.DVDLibraryMetricsDao;
+import com.bm.dvdlibrary.dao.DVDLibrarySnapshotDaoImpl;
 import com.bm.dvdlibrary.ui.DVDLibraryView;
 import com.bm.dvdlibrary.ui.UserIOImpl;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import javax.management.JMException;
 
 /**
- * Acts as the starting point of the whole application
+ * Acts as the starting point of the whole application.
+ *
+ * Run without arguments, the application is interactive. Run with
+ * "--script FILE", it runs the commands in FILE instead, or those piped
+ * into it if FILE is "-"; see DVDLibraryScriptController. Run with
+ * "--http PORT", it serves the collection over HTTP; see
+ * DVDLibraryHttpServer. Run with "--serve PORT", it serves the interactive
+ * menu to any number of simultaneous users over sockets; see
+ * DVDLibrarySessionServer
+ *
  * @author Benjamin Munoz
  */
 public class App {
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private static final String USAGE =
+        "Usage: App [--script <file>|- | --http <port> | --serve <port>]";
+
     public static void main(String[] args) {
-        DVDLibraryDao dao = new DVDLibraryDaoImpl();
-        DVDLibraryView view = new DVDLibraryView(
-            new UserIOImpl(new Scanner(System.in))
+        String script = null;
+        int httpPort = -1;
+        int sessionPort = -1;
+        if (args.length == 2 && args[0].equals("--script")) {
+            script = args[1];
+        } else if (args.length == 2 && args[0].equals("--http")) {
+            httpPort = parsePort(args[1]);
+        } else if (args.length == 2 && args[0].equals("--serve")) {
+            sessionPort = parsePort(args[1]);
+        } else if (args.length != 0) {
+            exitWithUsage();
+        }
+        
+        // requests to the servers are handled concurrently, and the
+        // interactive menu is used while the collection loads in the background;
+        // either way, long runs are snapshotted in the background as they go
+        DVDLibraryDaoImpl library;
+        DVDLibrarySnapshotDaoImpl snapshotted = null;
+        if (script == null) {
+            snapshotted = new DVDLibrarySnapshotDaoImpl();
+            // they only start once the collection has loaded
+            snapshotted.startSnapshots();
+            library = snapshotted;
+        } else {
+            library = new DVDLibraryDaoImpl();
+        }
+        // sessions save as each user leaves, and the final save often
+        // follows a snapshot, so most saves would rewrite an unchanged file
+        library.setSkipUnchangedSave(true);
+        DVDLibraryMetricsDao dao = new DVDLibraryMetricsDao(
+            new DVDLibraryIndexedDao(library, Paths.get("dvds.idx")),
+            Paths.get("dvds.txt")
         );
+        try {
+            dao.register("dvds");
+        } catch (JMException ex) {
+            // the metrics are still gathered, just not published
+        }
+        if (script != null) {
+            System.exit(runScript(dao, script));
+        }
+        if (httpPort >= 0) {
+            serveHttp(dao, snapshotted, httpPort);
+            return;
+        }
+        if (sessionPort >= 0) {
+            serveSessions(dao, snapshotted, sessionPort);
+            return;
+        }
         
-        DVDLibraryController controller = new DVDLibraryController(dao, view);
+        // output is buffered per screen, bypassing System.out
+        DVDLibraryView view = new DVDLibraryView(
+            new UserIOImpl(
+                new Scanner(System.in),
+                new OutputStreamWriter(
+                    new FileOutputStream(FileDescriptor.out), Charset.defaultCharset()
+                )
+            )
+        );
         
-        controller.run();
+        try (DVDLibraryAsyncDao asyncDao = new DVDLibraryAsyncDaoImpl(dao)) {
+            DVDLibraryController controller = new DVDLibraryController(asyncDao, view);
+            
+            controller.run();
+        } finally {
+            // the collection was saved, so only a snapshot in progress is waited on
+            snapshotted.close();
+        }
+    }
+
+    /**
+     * Parses a port given on the command line, exiting with the usage line
+     * if it is not a number from 0 to 65535
+     *
+     * @param port
+     * @return The aforementioned port
+     */
+    private static int parsePort(String port) {
+        try {
+            int parsed = Integer.parseInt(port);
+            if (parsed >= 0 && parsed <= 65535) {
+                return parsed;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below like any other bad argument
+        }
+        exitWithUsage();
+        return -1;
+    }
+
+    private static void exitWithUsage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Runs the commands of a script against the collection, writing their
+     * outcomes to standard output
+     * 
+     * @param dao
+     * @param script The script file, or "-" for standard input
+     * @return The exit status: 0 if every command succeeded, 1 otherwise
+     */
+    private static int runScript(DVDLibraryDao dao, String script) {
+        // bypass System.out, which flushes and locks on every line
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8
+            ),
+            OUTPUT_BUFFER_SIZE
+        );
+        try (BufferedReader in = script.equals("-")
+            ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+            : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)) {
+            long failures = new DVDLibraryScriptController(dao).run(in, out);
+            return failures == 0 ? 0 : 1;
+        } catch (IOException ex) {
+            System.err.println("Unable to run script: " + ex.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Loads the collection and serves it over HTTP until the JVM is shut
+     * down, at which point snapshots are stopped and the collection is saved
+     * 
+     * @param dao
+     * @param snapshots The DAO at the bottom of dao
+     * @param port
+     */
+    private static void serveHttp(
+        DVDLibraryDao dao, DVDLibrarySnapshotDaoImpl snapshots, int port
+    ) {
+        // otherwise each small response waits on a delayed acknowledgement,
+        // capping every connection at a few dozen requests per second; this
+        // is read once, when the JDK's server is first used
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        DVDLibraryHttpServer server;
+        try {
+            dao.loadDVDsFromExternal();
+            server = new DVDLibraryHttpServer(dao, new InetSocketAddress(port));
+        } catch (DVDLibraryDaoException | IOException ex) {
+            System.err.println("Unable to start server: " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            snapshots.close();
+            try {
+                dao.saveDVDsToExternal();
+            } catch (DVDLibraryDaoException ex) {
+                System.err.println(ex.getMessage());
+            }
+        }, "dvd-http-shutdown"));
+        server.start();
+        System.err.println("Serving DVDs at http://localhost:" + server.getAddress().getPort());
+    }
+    
+    /**
+     * Loads the collection and serves the menu to users connecting over
+     * sockets until the JVM is shut down, at which point snapshots are
+     * stopped and the collection is saved
+     * 
+     * @param dao
+     * @param snapshots The DAO at the bottom of dao
+     * @param port
+     */
+    private static void serveSessions(
+        DVDLibraryDao dao, DVDLibrarySnapshotDaoImpl snapshots, int port
+    ) {
+        DVDLibrarySessionServer server;
+        try {
+            dao.loadDVDsFromExternal();
+            server = new DVDLibrarySessionServer(dao, new InetSocketAddress(port));
+        } catch (DVDLibraryDaoException | IOException ex) {
+            System.err.println("Unable to start server: " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            snapshots.close();
+            try {
+                dao.saveDVDsToExternal();
+            } catch (DVDLibraryDaoException ex) {
+                System.err.println(ex.getMessage());
+            }
+        }, "dvd-session-shutdown"));
+        server.start();
+        System.err.println("Serving sessions at localhost:" + server.getAddress().getPort());
     }
 }
@@ -8,11 +8,21 @@
 
 package com.bm.dvdlibrary.controller;
 
+import com.bm.dvdlibrary.dao.DVDLibraryAsyncDao;
+import com.bm.dvdlibrary.dao.DVDLibraryBlockingDao;
 import com.bm.dvdlibrary.dao.DVDLibraryDao;
 import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
+import com.bm.dvdlibrary.dao.DVDSortKey;
+import com.bm.dvdlibrary.dao.DVDStatistics;
 import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
 import com.bm.dvdlibrary.ui.DVDLibraryView;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Acts as the controller for this whole application
@@ -20,8 +30,17 @@ import java.time.LocalDate;
  * @author Benjamin Munoz
  */
 public class DVDLibraryController {
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int PAGE_SIZE = 10;
+    
     private DVDLibraryDao dao;
     private DVDLibraryView view;
+    private DVDLibraryAsyncDao asyncDao;
+    
+    /**
+     * The load in progress, until its outcome has been reported
+     */
+    private CompletableFuture<Void> loading;
 
     /**
      * Creates a new instance of this class that is initialized
@@ -35,21 +54,58 @@ public class DVDLibraryController {
     }
     
     /**
-     * Executes a run of this application
+     * Creates a new instance of this class that is initialized with a
+     * given asynchronous DAO and VIEW. Its runs show the menu while the
+     * collection is still loading
+     * @param asyncDao
+     * @param view 
+     */
+    public DVDLibraryController(DVDLibraryAsyncDao asyncDao, DVDLibraryView view) {
+        this(new DVDLibraryBlockingDao(asyncDao), view);
+        this.asyncDao = asyncDao;
+    }
+    
+    /**
+     * Executes a run of this application: loads the collection, runs a
+     * session with the user and then saves the collection
      */
     public void run() {
         // attempt to load the DVDs into memory, if possible
+        if (asyncDao != null) {
+            // the first option that needs the collection waits for it
+            loading = asyncDao.loadDVDsFromExternal();
+        } else {
+            try {
+                dao.loadDVDsFromExternal();
+            } catch (DVDLibraryDaoException ex) {
+                view.displayError(ex.getMessage());
+            }
+        }
+        
+        runSession();
+        
+        // attempt to save DVDs to an external source for future usage by this
+        // application
         try {
-            dao.loadDVDsFromExternal();
+            dao.saveDVDsToExternal();
         } catch (DVDLibraryDaoException ex) {
             view.displayError(ex.getMessage());
         }
-        
+        view.flush();
+    }
+    
+    /**
+     * Runs the menu for the user until they exit, over a collection that
+     * has already been loaded and that other sessions may be using at the
+     * same time
+     */
+    public void runSession() {
         boolean active = true;
         int choice;
         while (active) {
+            reportLoadFailure();
             view.displayMenuOptions();
-            choice = view.queryInt(1, 6, "Select an option");
+            choice = view.queryInt(1, 7, "Select an option");
             switch (choice) {
                 case 1:
                     addDVD();
@@ -67,6 +123,9 @@ public class DVDLibraryController {
                     listDVDs();
                     break;
                 case 6:
+                    displayStatistics();
+                    break;
+                case 7:
                     active = false;
                     break;
                 default:
@@ -76,14 +135,23 @@ public class DVDLibraryController {
         }
         
         view.displayText("Thank you for using this application");
-        
-        // attempt to save DVDs to an external source for future usage by this
-        // application
+        view.flush();
+    }
+    
+    /**
+     * Displays why the load in progress failed, if it has failed; the
+     * session carries on either way, as if it had loaded synchronously
+     */
+    private void reportLoadFailure() {
+        if (loading == null || !loading.isDone()) {
+            return;
+        }
         try {
-            dao.saveDVDsToExternal();
-        } catch (DVDLibraryDaoException ex) {
-            view.displayError(ex.getMessage());
+            loading.join();
+        } catch (CompletionException ex) {
+            view.displayError(ex.getCause().getMessage());
         }
+        loading = null;
     }
     
     /**
@@ -119,7 +187,10 @@ public class DVDLibraryController {
             dvd -> {
                 view.displayInfo("DVD INFO");
                 displayDVDInfo(dvd);
-            }, () -> view.displayError("There is no DVD with that title")
+            }, () -> {
+                view.displayError("There is no DVD with that title");
+                suggestTitlesLike(title);
+            }
         );
         view.displayFooter("DVD INFO MENU");
         pauseBeforeAllowedContinuation();
@@ -137,10 +208,18 @@ public class DVDLibraryController {
                 view.displayInfo("CURRENT DVD INFO");
                 displayDVDInfo(original);
                 DVD modifiedDVD = getModifiedDVDOf(original);
-                dao.saveDVD(modifiedDVD);
-                view.displayInfo("Changes saved");
+                // refused if the DVD was changed elsewhere meanwhile
+                if (dao.replaceDVD(original, modifiedDVD).isPresent()) {
+                    view.displayInfo("Changes saved");
+                } else {
+                    view.displayError(
+                        "This DVD was changed or removed while you were "
+                        + "editing it, so your changes were not saved"
+                    );
+                }
             }, () -> {
                 view.displayError("There's no DVD in the collection with this title");
+                suggestTitlesLike(title);
             }
         );
         
@@ -163,43 +242,84 @@ public class DVDLibraryController {
     }
     
     /**
-     * Handles the listing of DVDs in the collection
+     * Handles the listing of DVDs in the collection, one page at a time in
+     * an order chosen by the user
      */
     private void listDVDs() {
         view.displayHeader("DVDS IN COLLECTION");
-        for (DVD dvd : dao.getAllDVDs()) {
-            view.displayHeader("---".repeat(10));
-            displayDVDInfo(dvd);
-            view.displayFooter("---".repeat(10));
+        DVDSortKey[] sortKeys = DVDSortKey.values();
+        for (int i = 0; i < sortKeys.length; i++) {
+            view.displayText((i + 1) + ": " + sortKeys[i].getDescription());
+        }
+        DVDSortKey sortKey = sortKeys[view.queryInt(1, sortKeys.length, "Sort by") - 1];
+        
+        // only the page being shown is fetched, continuing after its last DVD
+        DVD last = null;
+        boolean more = true;
+        while (more) {
+            List<DVD> page = dao.getDVDPage(last, PAGE_SIZE, sortKey);
+            for (DVD dvd : page) {
+                view.displayHeader("---".repeat(10));
+                displayDVDInfo(dvd);
+                view.displayFooter("---".repeat(10));
+            }
+            if (page.size() < PAGE_SIZE) {
+                more = false;
+            } else {
+                last = page.get(page.size() - 1);
+                more = view.queryNextPage();
+            }
         }
         view.displayFooter("DVDS IN COLLECTION");
         pauseBeforeAllowedContinuation();
     }
     
+    /**
+     * Handles the display of aggregates over the collection
+     */
+    private void displayStatistics() {
+        view.displayHeader("COLLECTION STATISTICS");
+        DVDStatistics statistics = dao.getStatistics();
+        view.displayText("DVDs in collection: " + statistics.getDVDCount());
+        
+        view.displayInfo("AVERAGE RATING BY DIRECTOR");
+        for (Map.Entry<String, Double> entry
+            : statistics.getAverageRatingByDirector().entrySet()) {
+            view.displayText(String.format("%s: %.2f", entry.getKey(), entry.getValue()));
+        }
+        
+        view.displayInfo("DVDS BY STUDIO AND DECADE");
+        for (Map.Entry<String, SortedMap<Integer, Long>> entry
+            : statistics.getCountByStudioAndDecade().entrySet()) {
+            StringBuilder line = new StringBuilder(entry.getKey()).append(':');
+            entry.getValue().forEach((decade, count) ->
+                line.append(' ').append(decade).append("s x").append(count)
+            );
+            view.displayText(line.toString());
+        }
+        
+        view.displayInfo("USER RATINGS BY MPAA RATING");
+        for (Map.Entry<MpaaRating, SortedMap<Integer, Long>> entry
+            : statistics.getRatingDistributionByMpaaRating().entrySet()) {
+            StringBuilder line = new StringBuilder(entry.getKey().getLabel()).append(':');
+            entry.getValue().forEach((rating, count) ->
+                line.append(' ').append(rating).append(" x").append(count)
+            );
+            view.displayText(line.toString());
+        }
+        view.displayFooter("COLLECTION STATISTICS");
+        pauseBeforeAllowedContinuation();
+    }
+    
     /**
      * Handler for taking an existing DVD and
      * allowing the user to modify its information
      * 
      * @param original The original DVD
-     * @return The aforementioned DVD after modification
+     * @return A copy of the original DVD holding the modified information
      */
     private DVD getModifiedDVDOf(DVD original) {
-        String director = view.queryNonemptyString("Enter the film's director");
-        LocalDate releaseDate = view.queryDate("Enter the film's release date");
-        String mpaaRating = view.queryMpaaRating();
-        String studio = view.queryNonemptyString("Enter the film's studio(s)");
-        
-        int rating = view.queryInt(0, 10, "Give your rating for this film");
-        String note = view.queryString("Enter a short note for this film, if any");
-        
-        original.setDirectorName(director);
-        original.setMpaaRating(mpaaRating);
-        original.setNote(note);
-        original.setRating(rating);
-        original.setReleaseDate(releaseDate);
-        original.setStudio(studio);
-        
-        return original;
+        return queryDVDInfo(original.toBuilder());
     }
     
     /**
@@ -209,7 +329,33 @@ public class DVDLibraryController {
      */
     private DVD produceDVD() {
         String title = view.queryNonemptyString("Enter the film title");
-        return getModifiedDVDOf(new DVD(title));
+        return queryDVDInfo(DVD.builder(title));
+    }
+    
+    /**
+     * Handler for asking the user for all the information about
+     * a DVD besides its title
+     * 
+     * @param builder A builder for the DVD
+     * @return The DVD holding the information entered
+     */
+    private DVD queryDVDInfo(DVD.Builder builder) {
+        String director = view.queryNonemptyString("Enter the film's director");
+        LocalDate releaseDate = view.queryDate("Enter the film's release date");
+        MpaaRating mpaaRating = view.queryMpaaRating();
+        String studio = view.queryNonemptyString("Enter the film's studio(s)");
+        
+        int rating = view.queryInt(0, 10, "Give your rating for this film");
+        String note = view.queryString("Enter a short note for this film, if any");
+        
+        return builder
+            .directorName(director)
+            .releaseDate(releaseDate)
+            .mpaaRating(mpaaRating)
+            .studio(studio)
+            .rating(rating)
+            .note(note)
+            .build();
     }
         
     /**
@@ -227,6 +373,23 @@ public class DVDLibraryController {
         view.displayText("Notes: " + dvd.getNote());
     }
 
+    /**
+     * Handler for showing the user the titles in the collection that
+     * most resemble one that could not be found
+     * 
+     * @param title 
+     */
+    private void suggestTitlesLike(String title) {
+        List<DVD> suggestions = dao.searchTitles(title, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            return;
+        }
+        view.displayInfo("Did you mean");
+        for (DVD dvd : suggestions) {
+            view.displayText(dvd.getTitle());
+        }
+    }
+
     /**
      * Handler for pausing the whole application before the user
      * allows it to continue
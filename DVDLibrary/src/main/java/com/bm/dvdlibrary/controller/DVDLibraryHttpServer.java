@@ -0,0 +1,436 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Serve the collection to many clients at once over HTTP
+ */
+
+package com.bm.dvdlibrary.controller;
+
+import com.bm.dvdlibrary.dao.DVDJsonCodec;
+import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
+import com.bm.dvdlibrary.dao.DVDQuery;
+import com.bm.dvdlibrary.dao.DVDSortKey;
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Serves the collection of a DAO as JSON over HTTP, through the HTTP
+ * server built into the JDK:
+ *
+ * GET    /dvds              every DVD, optionally only those matching the
+ *                           parameters director, studio and mpaaRating
+ * GET    /dvds?sort=ORDER   a page of DVDs in the order TITLE, RELEASE_DATE
+ *                           or RATING, of up to limit DVDs, starting after
+ *                           the DVD titled after; limits are capped at 10000
+ * GET    /dvds/TITLE        the DVD with the title
+ * POST   /dvds              adds the DVD in the body
+ * PUT    /dvds/TITLE        replaces the DVD with the title by the one in
+ *                           the body
+ * DELETE /dvds/TITLE        removes the DVD with the title
+ * GET    /search?q=TEXT     up to limit DVDs whose text best matches TEXT
+ * POST   /save              saves the collection to its external source
+ *
+ * DVDs are represented as by DVDJsonCodec. Lists are encoded as they are
+ * streamed from the DAO, so a listing of the whole collection is never
+ * held in memory as text.
+ *
+ * Each request runs on a thread of its own: a virtual thread on Java 21
+ * and later, or else a thread from a pool. Requests run concurrently, so
+ * the DAO must be thread-safe.
+ *
+ * Small responses are only sent promptly if the JVM is launched with
+ * -Dsun.net.httpserver.nodelay=true, which App sets before it starts the
+ * server; otherwise each one waits on a delayed acknowledgement
+ *
+ * @author agent
+ */
+public class DVDLibraryHttpServer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_LIMIT = 10_000;
+    private static final String DVDS_PATH = "/dvds";
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final DVDLibraryDao dao;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new instance of this class that serves the collection of
+     * the given DAO on the given address, once started
+     *
+     * @param dao A thread-safe DAO, whose collection is already loaded
+     * @param address
+     * @throws IOException If the address cannot be bound
+     */
+    public DVDLibraryHttpServer(DVDLibraryDao dao, InetSocketAddress address)
+        throws IOException {
+        this.dao = dao;
+        this.server = HttpServer.create(address, 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext(DVDS_PATH, this::handleDVDs);
+        server.createContext("/search", this::handleSearch);
+        server.createContext("/save", this::handleSave);
+    }
+
+    /**
+     * Starts serving requests, on background threads
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops serving requests, waiting up to the given number of seconds for
+     * those in progress to finish
+     *
+     * @param delaySeconds
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Obtains the address being served, which holds the actual port if
+     * port 0 was asked for
+     *
+     * @return The aforementioned address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Creates an executor that runs each request on a virtual thread of its
+     * own where the running JVM has them, and on a pooled daemon thread
+     * otherwise. Virtual threads are looked up reflectively so this still
+     * builds for Java 11
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors() * 4,
+                runnable -> {
+                    Thread thread = new Thread(
+                        runnable, "dvd-http-" + threadCount.getAndIncrement()
+                    );
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        }
+    }
+
+    private void handleDVDs(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals(DVDS_PATH) || path.equals(DVDS_PATH + "/")) {
+                switch (method) {
+                    case "GET":
+                        listDVDs(exchange);
+                        break;
+                    case "POST":
+                        addDVD(exchange);
+                        break;
+                    default:
+                        sendError(exchange, 405, "method not allowed");
+                        break;
+                }
+                return;
+            }
+            if (!path.startsWith(DVDS_PATH + "/")) {
+                sendError(exchange, 404, "not found");
+                return;
+            }
+            String title = path.substring(DVDS_PATH.length() + 1);
+            switch (method) {
+                case "GET":
+                    sendDVD(exchange, dao.getDVDByTitle(title), title);
+                    break;
+                case "PUT":
+                    editDVD(exchange, title);
+                    break;
+                case "DELETE":
+                    sendDVD(exchange, dao.removeDVD(title), title);
+                    break;
+                default:
+                    sendError(exchange, 405, "method not allowed");
+                    break;
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void listDVDs(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseQuery(exchange);
+        String sort = parameters.get("sort");
+        if (sort != null) {
+            DVDSortKey sortKey;
+            try {
+                sortKey = DVDSortKey.valueOf(sort.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                sendError(exchange, 400, "invalid sort");
+                return;
+            }
+            int limit = parseLimit(parameters, DEFAULT_PAGE_SIZE);
+            if (limit < 1) {
+                sendError(exchange, 400, "invalid limit");
+                return;
+            }
+            DVD after = null;
+            if (parameters.containsKey("after")) {
+                Optional<DVD> last = dao.getDVDByTitle(parameters.get("after"));
+                if (last.isEmpty()) {
+                    sendError(exchange, 400, "there is no DVD titled " + parameters.get("after"));
+                    return;
+                }
+                after = last.get();
+            }
+            sendDVDs(exchange, dao.getDVDPage(after, limit, sortKey).stream());
+            return;
+        }
+
+        DVDQuery query = new DVDQuery()
+            .directorName(parameters.get("director"))
+            .studio(parameters.get("studio"));
+        String mpaaLabel = parameters.get("mpaaRating");
+        if (mpaaLabel != null) {
+            Optional<MpaaRating> mpaaRating = MpaaRating.fromLabel(mpaaLabel);
+            if (mpaaRating.isEmpty()) {
+                sendError(exchange, 400, "invalid mpaaRating");
+                return;
+            }
+            query.mpaaRating(mpaaRating.get());
+        }
+        if (query.getDirectorName() == null && query.getStudio() == null
+            && query.getMpaaRating() == null) {
+            try (Stream<DVD> dvds = dao.streamDVDs()) {
+                sendDVDs(exchange, dvds);
+            }
+        } else {
+            sendDVDs(exchange, dao.findDVDs(query).stream());
+        }
+    }
+
+    private void addDVD(HttpExchange exchange) throws IOException {
+        DVD dvd = readDVD(exchange);
+        if (dvd == null) {
+            return;
+        }
+        if (dao.addDVD(dvd).isEmpty()) {
+            sendError(exchange, 409, "a DVD titled " + dvd.getTitle() + " already exists");
+            return;
+        }
+        try {
+            exchange.getResponseHeaders().set(
+                "Location",
+                new URI(null, null, DVDS_PATH + "/" + dvd.getTitle(), null).toASCIIString()
+            );
+        } catch (URISyntaxException ex) {
+            // the DVD is added all the same, just without saying where
+        }
+        send(exchange, 201, dvd);
+    }
+
+    private void editDVD(HttpExchange exchange, String title) throws IOException {
+        DVD dvd = readDVD(exchange);
+        if (dvd == null) {
+            return;
+        }
+        if (!dvd.getTitle().equals(title)) {
+            sendError(exchange, 400, "the title in the body does not match the path");
+            return;
+        }
+        sendDVD(exchange, dao.saveDVD(dvd), title);
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> parameters = parseQuery(exchange);
+            String text = parameters.get("q");
+            if (!exchange.getRequestMethod().equals("GET") || text == null) {
+                sendError(exchange, 400, "expected GET with a q parameter");
+                return;
+            }
+            int limit = parseLimit(parameters, DEFAULT_SEARCH_LIMIT);
+            if (limit < 1) {
+                sendError(exchange, 400, "invalid limit");
+                return;
+            }
+            sendDVDs(exchange, dao.searchNotes(text, limit).stream());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleSave(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "method not allowed");
+                return;
+            }
+            try {
+                dao.saveDVDsToExternal();
+            } catch (DVDLibraryDaoException ex) {
+                sendError(exchange, 500, ex.getMessage());
+                return;
+            }
+            exchange.sendResponseHeaders(204, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Parses the DVD in the body of the request, answering it with an
+     * error if there is none
+     *
+     * @return The aforementioned DVD, or null if there is none
+     */
+    private static DVD readDVD(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try {
+            return DVDJsonCodec.parse(body);
+        } catch (IllegalArgumentException ex) {
+            sendError(exchange, 400, ex.getMessage());
+            return null;
+        }
+    }
+
+    private static void sendDVD(HttpExchange exchange, Optional<DVD> dvd, String title)
+        throws IOException {
+        if (dvd.isEmpty()) {
+            sendError(exchange, 404, "there is no DVD titled " + title);
+        } else {
+            send(exchange, 200, dvd.get());
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, DVD dvd)
+        throws IOException {
+        StringBuilder json = new StringBuilder(256);
+        DVDJsonCodec.format(dvd, json);
+        sendJson(exchange, status, json);
+    }
+
+    /**
+     * Answers the request with a JSON array of the DVDs, encoding them as
+     * they are streamed
+     */
+    private static void sendDVDs(HttpExchange exchange, Stream<DVD> dvds)
+        throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        // a length of 0 means the body is sent in chunks
+        exchange.sendResponseHeaders(200, 0);
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8),
+            BUFFER_SIZE
+        );
+        StringBuilder json = new StringBuilder(256);
+        json.append('[');
+        Iterator<DVD> iterator = dvds.iterator();
+        while (iterator.hasNext()) {
+            DVDJsonCodec.format(iterator.next(), json);
+            if (iterator.hasNext()) {
+                json.append(',');
+            }
+            out.append(json);
+            json.setLength(0);
+        }
+        out.append(']');
+        out.flush();
+    }
+
+    /**
+     * Parses the limit parameter, capped at MAX_LIMIT
+     *
+     * @return The aforementioned limit, or 0 if it is not a positive number
+     */
+    private static int parseLimit(Map<String, String> parameters, int defaultLimit) {
+        String limit = parameters.get("limit");
+        if (limit == null) {
+            return defaultLimit;
+        }
+        try {
+            return (int) Math.max(0, Math.min(Long.parseLong(limit), MAX_LIMIT));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message)
+        throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        DVDJsonCodec.appendString(message, json);
+        json.append('}');
+        sendJson(exchange, status, json);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, CharSequence json)
+        throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.put(
+                    URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8)
+                );
+            }
+        }
+        return parameters;
+    }
+}
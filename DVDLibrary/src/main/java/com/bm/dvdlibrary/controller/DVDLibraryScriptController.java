@@ -0,0 +1,255 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Run commands against the collection without user interaction
+ */
+
+package com.bm.dvdlibrary.controller;
+
+import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
+import com.bm.dvdlibrary.dao.DVDRecordCodec;
+import com.bm.dvdlibrary.dao.DVDSortKey;
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Acts as the controller for runs of this application driven by a script
+ * rather than by the user. Each line of the script holds one command:
+ *
+ * add RECORD      adds the DVD described by a "::" delimited record
+ * edit RECORD     replaces the DVD with the title of the record
+ * get TITLE       prints the record of the DVD with the title
+ * remove TITLE    removes the DVD with the title, printing its record
+ * list [ORDER]    prints every record, in no particular order or in the
+ *                 order TITLE, RELEASE_DATE or RATING
+ * save            saves the collection to its external source
+ *
+ * Records are written as in the text library file. Every command prints
+ * the records it involves followed by a line starting with "OK", or a
+ * single line starting with "ERR" and naming the line of the script.
+ * Blank lines and lines starting with "#" are ignored.
+ *
+ * If the collection cannot be loaded, as when a new library has no file
+ * yet, a line starting with "WARN" says so and the script runs against
+ * whatever was loaded; this is not counted as a failed command
+ *
+ * Output is buffered and only written out when the buffer fills up or the
+ * script ends, and nothing is ever asked of the user
+ *
+ * @author agent
+ */
+public class DVDLibraryScriptController {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final DVDLibraryDao dao;
+    private final DVDRecordCodec codec = new DVDRecordCodec();
+    private final StringBuilder output = new StringBuilder(BUFFER_SIZE + 1024);
+    private Writer out;
+    private long lineNumber;
+
+    /**
+     * Creates a new instance of this class that runs commands against the
+     * collection of the given DAO
+     *
+     * @param dao
+     */
+    public DVDLibraryScriptController(DVDLibraryDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Loads the collection, runs every command of the script and then saves
+     * the collection. The output is flushed but not closed
+     *
+     * @param script
+     * @param out
+     * @return The number of commands that failed
+     * @throws IOException If the script cannot be read or the output
+     * cannot be written
+     */
+    public long run(BufferedReader script, Writer out) throws IOException {
+        this.out = out;
+        lineNumber = 0;
+        long failures = 0;
+        try {
+            dao.loadDVDsFromExternal();
+        } catch (DVDLibraryDaoException ex) {
+            warn(ex.getMessage());
+        }
+
+        for (String line = script.readLine(); line != null; line = script.readLine()) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            if (!runCommand(line)) {
+                failures++;
+            }
+            if (output.length() >= BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        try {
+            dao.saveDVDsToExternal();
+        } catch (DVDLibraryDaoException ex) {
+            failures++;
+            fail(ex.getMessage());
+        }
+        flush();
+        out.flush();
+        return failures;
+    }
+
+    /**
+     * Runs a single command
+     *
+     * @return Whether it succeeded
+     */
+    private boolean runCommand(String line) throws IOException {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String argument = space < 0 ? "" : line.substring(space + 1);
+        switch (command) {
+            case "add":
+                return addDVD(argument);
+            case "edit":
+                return editDVD(argument);
+            case "get":
+                return reportDVD(dao.getDVDByTitle(argument), argument);
+            case "remove":
+                return reportDVD(dao.removeDVD(argument), argument);
+            case "list":
+                return listDVDs(argument.trim());
+            case "save":
+                return saveDVDs();
+            default:
+                return fail("unknown command \"" + command + "\"");
+        }
+    }
+
+    private boolean addDVD(String record) {
+        DVD dvd = parse(record);
+        if (dvd == null) {
+            return false;
+        }
+        if (dao.addDVD(dvd).isEmpty()) {
+            return fail("a DVD titled \"" + dvd.getTitle() + "\" is already in the collection");
+        }
+        return succeed();
+    }
+
+    private boolean editDVD(String record) {
+        DVD dvd = parse(record);
+        if (dvd == null) {
+            return false;
+        }
+        if (dao.saveDVD(dvd).isEmpty()) {
+            return fail("there is no DVD titled \"" + dvd.getTitle() + "\"");
+        }
+        return succeed();
+    }
+
+    private boolean reportDVD(Optional<DVD> dvd, String title) {
+        if (dvd.isEmpty()) {
+            return fail("there is no DVD titled \"" + title + "\"");
+        }
+        DVDRecordCodec.format(dvd.get(), output);
+        return succeed();
+    }
+
+    private boolean listDVDs(String order) throws IOException {
+        long count = 0;
+        if (order.isEmpty()) {
+            try (Stream<DVD> dvds = dao.streamDVDs()) {
+                Iterator<DVD> iterator = dvds.iterator();
+                while (iterator.hasNext()) {
+                    DVDRecordCodec.format(iterator.next(), output);
+                    count++;
+                    if (output.length() >= BUFFER_SIZE) {
+                        flush();
+                    }
+                }
+            }
+        } else {
+            DVDSortKey sortKey;
+            try {
+                sortKey = DVDSortKey.valueOf(order.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                return fail("unknown order \"" + order + "\"");
+            }
+            DVD last = null;
+            List<DVD> page;
+            do {
+                page = dao.getDVDPage(last, LIST_PAGE_SIZE, sortKey);
+                for (DVD dvd : page) {
+                    DVDRecordCodec.format(dvd, output);
+                }
+                count += page.size();
+                flush();
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+            } while (page.size() == LIST_PAGE_SIZE);
+        }
+        output.append("OK ").append(count).append(System.lineSeparator());
+        return true;
+    }
+
+    private boolean saveDVDs() {
+        try {
+            dao.saveDVDsToExternal();
+        } catch (DVDLibraryDaoException ex) {
+            return fail(ex.getMessage());
+        }
+        return succeed();
+    }
+
+    /**
+     * Parses a "::" delimited record, reporting a failure if it is
+     * malformed
+     *
+     * @return The DVD it describes, or null if it is malformed
+     */
+    private DVD parse(String record) {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        DVD dvd = codec.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+        if (dvd == null) {
+            fail(codec.getLastError());
+        }
+        return dvd;
+    }
+
+    private boolean succeed() {
+        output.append("OK").append(System.lineSeparator());
+        return true;
+    }
+
+    private boolean fail(String reason) {
+        output.append("ERR line ").append(lineNumber).append(": ").append(reason)
+            .append(System.lineSeparator());
+        return false;
+    }
+
+    private void warn(String reason) {
+        output.append("WARN ").append(reason).append(System.lineSeparator());
+    }
+
+    private void flush() throws IOException {
+        out.append(output);
+        output.setLength(0);
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Serve concurrent text sessions over sockets from one collection
+ */
+
+package com.bm.dvdlibrary.controller;
+
+import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
+import com.bm.dvdlibrary.ui.DVDLibraryView;
+import com.bm.dvdlibrary.ui.SocketUserIO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts text sessions over sockets, each running the usual menu through
+ * a DVDLibraryController of its own, while all of them share the one
+ * collection of a thread-safe DAO. Users connect with e.g. telnet or nc.
+ *
+ * The collection must be loaded before the server is started. It is
+ * saved whenever a session ends, as a lone controller would save it on
+ * exit, so one user leaving never discards the changes of another.
+ * Concurrent edits to the same DVD are detected by the controller through
+ * DVDLibraryDao.replaceDVD()
+ *
+ * @author agent
+ */
+public class DVDLibrarySessionServer {
+    private final DVDLibraryDao dao;
+    private final ServerSocket serverSocket;
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final ExecutorService sessions = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(
+            runnable, "dvd-session-" + sessionCount.getAndIncrement()
+        );
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new instance of this class that serves the collection of
+     * the given DAO on the given address, once started
+     *
+     * @param dao A thread-safe DAO
+     * @param address
+     * @throws IOException If the address cannot be bound
+     */
+    public DVDLibrarySessionServer(DVDLibraryDao dao, InetSocketAddress address)
+        throws IOException {
+        this.dao = dao;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+    }
+
+    /**
+     * Starts accepting sessions on a background thread, which keeps the
+     * JVM alive until the server is stopped
+     */
+    public synchronized void start() {
+        new Thread(this::acceptSessions, "dvd-session-acceptor").start();
+    }
+
+    /**
+     * Stops accepting sessions and ends those in progress, waiting up to
+     * the given number of seconds for them to finish
+     *
+     * @param delay
+     */
+    public synchronized void stop(int delay) {
+        try {
+            serverSocket.close();
+        } catch (IOException ex) {
+            // no further sessions can be accepted either way
+        }
+        sessions.shutdown();
+        // blocked reads are not interruptible, so the sessions are disconnected
+        for (Socket socket : openSockets) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // the session ends either way
+            }
+        }
+        try {
+            sessions.awaitTermination(delay, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Obtains the address being served, which holds the actual port if
+     * port 0 was asked for
+     *
+     * @return The aforementioned address
+     */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    private void acceptSessions() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException ex) {
+                // the server socket has been closed
+                return;
+            } catch (IOException ex) {
+                continue;
+            }
+            openSockets.add(socket);
+            sessions.execute(() -> runSession(socket));
+        }
+    }
+
+    private void runSession(Socket socket) {
+        SocketUserIO userIO;
+        try {
+            socket.setTcpNoDelay(true);
+            userIO = new SocketUserIO(socket);
+        } catch (IOException ex) {
+            try {
+                socket.close();
+            } catch (IOException closeFailure) {
+                // the session never started
+            }
+            openSockets.remove(socket);
+            return;
+        }
+
+        DVDLibraryView view = new DVDLibraryView(userIO);
+        try {
+            new DVDLibraryController(dao, view).runSession();
+        } catch (NoSuchElementException | IllegalStateException | UncheckedIOException ex) {
+            // the user disconnected without exiting
+        } finally {
+            userIO.close();
+            openSockets.remove(socket);
+        }
+
+        try {
+            dao.saveDVDsToExternal();
+        } catch (DVDLibraryDaoException ex) {
+            System.err.println(ex.getMessage());
+        }
+    }
+}
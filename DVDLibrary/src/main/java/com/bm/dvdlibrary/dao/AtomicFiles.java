@@ -0,0 +1,94 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Replace files without ever leaving them half-written
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes files by writing a temporary sibling, forcing it to disk and then
+ * renaming it over the original, so a crash leaves either the old or the
+ * new contents behind, never a mixture
+ *
+ * @author agent
+ */
+public final class AtomicFiles {
+
+    /**
+     * Produces the contents of a file through a channel
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Replaces the target file with the contents produced by the writer
+     *
+     * @param target
+     * @param writer
+     * @return The size of the new file in bytes
+     * @throws IOException If the contents cannot be written; the target is
+     * left untouched in that case
+     */
+    public static long write(Path target, ContentWriter writer) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temp = absoluteTarget.resolveSibling(
+            absoluteTarget.getFileName() + ".tmp"
+        );
+        long size;
+        try (FileChannel channel = FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            writer.writeTo(channel);
+            channel.force(true);
+            size = channel.size();
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+
+        try {
+            Files.move(
+                temp, absoluteTarget,
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING
+            );
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, absoluteTarget, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(absoluteTarget.getParent());
+        return size;
+    }
+
+    /**
+     * Makes a rename within the directory durable, where the platform
+     * allows directories to be opened at all
+     */
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // not supported on every platform; the rename itself already happened
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Hold one unvalidated record of a supplier catalogue
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One record of a catalogue as it was read, before any of its fields have
+ * been validated, along with the line on which it starts. Records whose
+ * structure could not be understood at all carry the reason instead
+ *
+ * @author agent
+ */
+final class CatalogueRecord {
+    static final String TITLE = "title";
+    static final String RELEASE_DATE = "releaseDate";
+    static final String MPAA_RATING = "mpaaRating";
+    static final String DIRECTOR_NAME = "directorName";
+    static final String STUDIO = "studio";
+    static final String RATING = "rating";
+    static final String NOTE = "note";
+
+    /**
+     * The fields of a record, in the order they are exported
+     */
+    static final String[] FIELDS = {
+        TITLE, RELEASE_DATE, MPAA_RATING, DIRECTOR_NAME, STUDIO, RATING, NOTE
+    };
+
+    private final long lineNumber;
+    private final Map<String, String> fields;
+    private final String error;
+
+    private CatalogueRecord(long lineNumber, Map<String, String> fields, String error) {
+        this.lineNumber = lineNumber;
+        this.fields = fields;
+        this.error = error;
+    }
+
+    static CatalogueRecord of(long lineNumber, Map<String, String> fields) {
+        return new CatalogueRecord(lineNumber, fields, null);
+    }
+
+    static CatalogueRecord malformed(long lineNumber, String error) {
+        return new CatalogueRecord(lineNumber, Map.of(), error);
+    }
+
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Obtains the value of a field
+     *
+     * @param name
+     * @return The aforementioned value, or null if the record lacks it
+     */
+    String get(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * Obtains the reason the structure of this record could not be
+     * understood
+     *
+     * @return The aforementioned reason, or null if it was understood
+     */
+    String getError() {
+        return error;
+    }
+
+    /**
+     * Checks every field of this record as the view checks what the user
+     * types, and builds the DVD it describes
+     *
+     * @throws IllegalArgumentException If a field is invalid
+     */
+    DVD toDVD() {
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        String title = requireText(TITLE);
+        String directorName = requireText(DIRECTOR_NAME);
+        String studio = requireText(STUDIO);
+
+        LocalDate releaseDate;
+        try {
+            releaseDate = LocalDate.parse(require(RELEASE_DATE).trim());
+            // DVDs hold their release date as an int epoch day
+            Math.toIntExact(releaseDate.toEpochDay());
+        } catch (DateTimeException | ArithmeticException ex) {
+            throw new IllegalArgumentException(RELEASE_DATE + " is not a valid yyyy-mm-dd date");
+        }
+
+        Optional<MpaaRating> mpaaRating = MpaaRating.fromLabel(require(MPAA_RATING).trim());
+        if (mpaaRating.isEmpty()) {
+            throw new IllegalArgumentException(MPAA_RATING + " is not a valid MPAA rating");
+        }
+
+        int rating;
+        try {
+            rating = Integer.parseInt(require(RATING).trim());
+        } catch (NumberFormatException ex) {
+            rating = -1;
+        }
+        if (rating < 0 || rating > 10) {
+            throw new IllegalArgumentException(RATING + " is not a whole number from 0 to 10");
+        }
+
+        String note = fields.get(NOTE);
+        if (note == null) {
+            note = "";
+        } else if (note.indexOf('\n') >= 0 || note.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException(NOTE + " must not contain line breaks");
+        }
+
+        return DVD.builder(title)
+            .releaseDate(releaseDate)
+            .mpaaRating(mpaaRating.get())
+            .directorName(directorName)
+            .studio(studio)
+            .rating(rating)
+            .note(note)
+            .build();
+    }
+
+    private String require(String field) {
+        String value = fields.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is missing");
+        }
+        return value;
+    }
+
+    /**
+     * Obtains a field that must be nonempty and, since it is stored as a
+     * field of a "::" delimited record, must not hold line breaks or "::"
+     */
+    private String requireText(String field) {
+        String value = require(field);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(field + " must not be empty");
+        }
+        if (value.contains("::") || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException(
+                field + " must not contain \"::\" or line breaks"
+            );
+        }
+        return value;
+    }
+}
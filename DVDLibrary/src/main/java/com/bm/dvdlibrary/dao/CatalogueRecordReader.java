@@ -0,0 +1,29 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Read the records of a supplier catalogue one at a time
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.io.IOException;
+
+/**
+ * Reads the records of a catalogue one at a time, in order, from a
+ * character stream
+ *
+ * @author agent
+ */
+interface CatalogueRecordReader {
+    /**
+     * Reads the next record. Blank lines are skipped, and a record whose
+     * structure is broken is returned as a malformed record rather than
+     * ending the read
+     *
+     * @return The aforementioned record, or null at the end of the stream
+     * @throws IOException If the stream cannot be read
+     */
+    CatalogueRecord next() throws IOException;
+}
@@ -0,0 +1,165 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Read the records of a CSV catalogue
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an RFC 4180 CSV catalogue whose first record is a header naming
+ * the field in each column. Fields may be quoted, in which case they may
+ * hold commas, doubled quotes and line breaks
+ *
+ * @author agent
+ */
+class CsvRecordReader implements CatalogueRecordReader {
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> values = new ArrayList<>();
+    private String[] header;
+    private long lineNumber = 1;
+    private int lookahead = -2;
+    private String structureError;
+
+    /**
+     * @param in A buffered character stream
+     */
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public CatalogueRecord next() throws IOException {
+        if (header == null) {
+            int first = read();
+            if (first != BYTE_ORDER_MARK) {
+                unread(first);
+            }
+            long headerLine = lineNumber;
+            if (!readValues()) {
+                return null;
+            }
+            if (structureError != null) {
+                throw new IOException("line " + headerLine + ": " + structureError);
+            }
+            header = new String[values.size()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = values.get(i).trim();
+            }
+        }
+
+        long recordLine;
+        do {
+            recordLine = lineNumber;
+            if (!readValues()) {
+                return null;
+            }
+        } while (structureError == null && values.size() == 1 && values.get(0).isEmpty());
+
+        if (structureError != null) {
+            return CatalogueRecord.malformed(recordLine, structureError);
+        }
+        if (values.size() != header.length) {
+            return CatalogueRecord.malformed(
+                recordLine,
+                "expected " + header.length + " fields but found " + values.size()
+            );
+        }
+        Map<String, String> fields = new HashMap<>(header.length * 2);
+        for (int i = 0; i < header.length; i++) {
+            fields.put(header[i], values.get(i));
+        }
+        return CatalogueRecord.of(recordLine, fields);
+    }
+
+    /**
+     * Reads the fields of the next record into the values
+     *
+     * @return Whether there was a record to read
+     */
+    private boolean readValues() throws IOException {
+        values.clear();
+        structureError = null;
+        int c = read();
+        if (c < 0) {
+            return false;
+        }
+        field.setLength(0);
+        boolean quoted = false;
+        boolean afterQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    structureError = "quoted field is never closed";
+                    values.add(field.toString());
+                    return true;
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuoted = true;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    c = read();
+                    if (c != '\n') {
+                        unread(c);
+                    }
+                }
+                if (c >= 0) {
+                    lineNumber++;
+                }
+                values.add(field.toString());
+                return true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+                afterQuoted = false;
+            } else if (c == '"' && field.length() == 0 && !afterQuoted) {
+                quoted = true;
+            } else if (afterQuoted) {
+                if (structureError == null) {
+                    structureError = "unexpected text after a quoted field";
+                }
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        lookahead = c;
+    }
+}
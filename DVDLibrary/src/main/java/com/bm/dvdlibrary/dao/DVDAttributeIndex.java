@@ -0,0 +1,261 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Index DVDs by director, studio, ratings and release date
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Secondary indexes from the attributes of DVDs to their titles: hash
+ * indexes for director, studio and MPAA rating, and sorted indexes for
+ * release date and user rating.
+ *
+ * A query starts from whichever of its criteria narrows the collection
+ * down the most, and keeps only the titles the other hash indexes hold
+ * as well, smallest first, and whose DVDs fall within its ranges. Only
+ * the DVDs matching the whole query are then looked up, so its cost
+ * follows the size of its result rather than that of the collection.
+ *
+ * The sorted indexes, along with a sorted map of every title to its DVD,
+ * also keep their titles in order, so pages of the collection in any
+ * DVDSortKey order are read straight off them
+ *
+ * @author agent
+ */
+public class DVDAttributeIndex implements DVDIndex {
+    private final Map<String, Set<String>> byDirector = new HashMap<>();
+    private final Map<String, Set<String>> byStudio = new HashMap<>();
+    private final Map<MpaaRating, Set<String>> byMpaaRating = new EnumMap<>(MpaaRating.class);
+    private final NavigableMap<Integer, NavigableSet<String>> byReleaseDay = new TreeMap<>();
+    private final NavigableMap<Integer, NavigableSet<String>> byRating = new TreeMap<>();
+    private final NavigableMap<String, DVD> dvdsByTitle = new TreeMap<>();
+    private int size;
+
+    @Override
+    public void clear() {
+        byDirector.clear();
+        byStudio.clear();
+        byMpaaRating.clear();
+        byReleaseDay.clear();
+        byRating.clear();
+        dvdsByTitle.clear();
+        size = 0;
+    }
+
+    @Override
+    public void add(DVD dvd) {
+        String title = dvd.getTitle();
+        byDirector.computeIfAbsent(dvd.getDirectorName(), key -> new HashSet<>()).add(title);
+        byStudio.computeIfAbsent(dvd.getStudio(), key -> new HashSet<>()).add(title);
+        byMpaaRating.computeIfAbsent(dvd.getMpaaRating(), key -> new HashSet<>()).add(title);
+        byReleaseDay.computeIfAbsent(dvd.getReleaseEpochDay(), key -> new TreeSet<>()).add(title);
+        byRating.computeIfAbsent(dvd.getRating(), key -> new TreeSet<>()).add(title);
+        dvdsByTitle.put(title, dvd);
+        size++;
+    }
+
+    @Override
+    public void remove(DVD dvd) {
+        String title = dvd.getTitle();
+        removeFrom(byDirector, dvd.getDirectorName(), title);
+        removeFrom(byStudio, dvd.getStudio(), title);
+        removeFrom(byMpaaRating, dvd.getMpaaRating(), title);
+        removeFrom(byReleaseDay, dvd.getReleaseEpochDay(), title);
+        removeFrom(byRating, dvd.getRating(), title);
+        dvdsByTitle.remove(title);
+        size--;
+    }
+
+    /**
+     * Finds the titles of the page of at most the given number of DVDs
+     * that come right after the given DVD in the given order
+     *
+     * @param after The last DVD of the previous page, or null for the first
+     * page
+     * @param pageSize
+     * @param sortKey
+     * @return The aforementioned titles, in the given order
+     */
+    public List<String> pageTitles(DVD after, int pageSize, DVDSortKey sortKey) {
+        List<String> page = new ArrayList<>(Math.min(pageSize, size));
+        if (sortKey == DVDSortKey.TITLE) {
+            NavigableSet<String> titles = dvdsByTitle.navigableKeySet();
+            Set<String> following = after == null
+                ? titles : titles.tailSet(after.getTitle(), false);
+            for (String title : following) {
+                if (page.size() >= pageSize) {
+                    break;
+                }
+                page.add(title);
+            }
+            return page;
+        }
+
+        NavigableMap<Integer, NavigableSet<String>> index;
+        int afterKey;
+        if (sortKey == DVDSortKey.RELEASE_DATE) {
+            index = byReleaseDay;
+            afterKey = after == null ? 0 : after.getReleaseEpochDay();
+        } else {
+            index = byRating;
+            afterKey = after == null ? 0 : after.getRating();
+        }
+        Map<Integer, NavigableSet<String>> following = after == null
+            ? index : index.tailMap(afterKey, true);
+        for (Map.Entry<Integer, NavigableSet<String>> entry : following.entrySet()) {
+            Set<String> group = entry.getValue();
+            if (after != null && entry.getKey() == afterKey) {
+                group = entry.getValue().tailSet(after.getTitle(), false);
+            }
+            for (String title : group) {
+                if (page.size() >= pageSize) {
+                    return page;
+                }
+                page.add(title);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Finds the titles of the DVDs that match the query, by intersecting
+     * the sets of titles matching each of its criteria, starting from the
+     * smallest
+     *
+     * @param query
+     * @return The aforementioned titles, or null if the query has no
+     * criteria
+     */
+    public Collection<String> candidateTitles(DVDQuery query) {
+        List<Set<String>> hashed = new ArrayList<>();
+        if (query.getDirectorName() != null) {
+            hashed.add(byDirector.getOrDefault(query.getDirectorName(), Set.of()));
+        }
+        if (query.getStudio() != null) {
+            hashed.add(byStudio.getOrDefault(query.getStudio(), Set.of()));
+        }
+        if (query.getMpaaRating() != null) {
+            hashed.add(byMpaaRating.getOrDefault(query.getMpaaRating(), Set.of()));
+        }
+        hashed.sort(Comparator.comparingInt(Set::size));
+
+        // a range only starts the intersection if it holds fewer titles
+        List<Set<String>> start = null;
+        long startSize = size + 1L;
+        List<Set<String>> others = hashed;
+        if (!hashed.isEmpty()) {
+            start = hashed.subList(0, 1);
+            startSize = hashed.get(0).size();
+            others = hashed.subList(1, hashed.size());
+        }
+        if (query.hasReleaseRange()) {
+            List<Set<String>> ranged = rangeUnder(
+                byReleaseDay, query.getMinReleaseEpochDay(),
+                query.getMaxReleaseEpochDay(), startSize
+            );
+            if (ranged != null) {
+                start = ranged;
+                startSize = totalSize(ranged);
+                others = hashed;
+            }
+        }
+        if (query.hasRatingRange()) {
+            List<Set<String>> ranged = rangeUnder(
+                byRating, query.getMinRating(), query.getMaxRating(), startSize
+            );
+            if (ranged != null) {
+                start = ranged;
+                others = hashed;
+            }
+        }
+        if (start == null) {
+            return null;
+        }
+
+        List<String> matching = new ArrayList<>();
+        for (Set<String> titles : start) {
+            for (String title : titles) {
+                if (containsAll(others, title) && inRanges(query, dvdsByTitle.get(title))) {
+                    matching.add(title);
+                }
+            }
+        }
+        return matching;
+    }
+
+    private static boolean containsAll(List<Set<String>> sets, String title) {
+        for (Set<String> set : sets) {
+            if (!set.contains(title)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean inRanges(DVDQuery query, DVD dvd) {
+        return query.getMinReleaseEpochDay() <= dvd.getReleaseEpochDay()
+            && dvd.getReleaseEpochDay() <= query.getMaxReleaseEpochDay()
+            && query.getMinRating() <= dvd.getRating()
+            && dvd.getRating() <= query.getMaxRating();
+    }
+
+    /**
+     * Gathers the sets of titles whose keys lie within the range, giving up
+     * as soon as they hold at least the given number of titles
+     *
+     * @return The aforementioned sets, or null if there were too many titles
+     */
+    private static List<Set<String>> rangeUnder(
+        NavigableMap<Integer, NavigableSet<String>> index, int min, int max, long limit
+    ) {
+        if (min > max) {
+            return List.of();
+        }
+        List<Set<String>> sets = new ArrayList<>();
+        long total = 0;
+        for (Set<String> titles : index.subMap(min, true, max, true).values()) {
+            total += titles.size();
+            if (total >= limit) {
+                return null;
+            }
+            sets.add(titles);
+        }
+        return sets;
+    }
+
+    private static long totalSize(List<Set<String>> sets) {
+        long total = 0;
+        for (Set<String> set : sets) {
+            total += set.size();
+        }
+        return total;
+    }
+
+    private static <K, S extends Set<String>> void removeFrom(
+        Map<K, S> index, K key, String title
+    ) {
+        Set<String> titles = index.get(key);
+        if (titles != null && titles.remove(title) && titles.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
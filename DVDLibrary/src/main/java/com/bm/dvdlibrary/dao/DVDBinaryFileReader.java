@@ -0,0 +1,200 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Read DVDs stored in the binary file format
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads DVDs from a file in the format described by DVDBinaryFormat,
+ * streaming the records through a reusable buffer
+ *
+ * @author agent
+ */
+public class DVDBinaryFileReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    private final DVD.Builder builder = DVD.builder("");
+    private FileChannel channel;
+    private long remainingInFile;
+
+    /**
+     * Reads every DVD stored in the file into the sink, in file order
+     *
+     * @param source
+     * @param sink
+     * @throws IOException If the file cannot be read or is not in the
+     * binary format
+     */
+    public void load(Path source, Consumer<DVD> sink) throws IOException {
+        try (FileChannel opened = FileChannel.open(source, StandardOpenOption.READ)) {
+            channel = opened;
+            long size = channel.size();
+            if (size < DVDBinaryFormat.HEADER_SIZE + DVDBinaryFormat.FOOTER_SIZE) {
+                throw new IOException(source + " is not a binary DVD library");
+            }
+
+            ByteBuffer footer = ByteBuffer.allocate(DVDBinaryFormat.FOOTER_SIZE);
+            readFully(footer, size - DVDBinaryFormat.FOOTER_SIZE);
+            long tableOffset = footer.getLong(0);
+            long recordCount = footer.getLong(Long.BYTES);
+            if (footer.getInt(2 * Long.BYTES) != DVDBinaryFormat.MAGIC
+                || tableOffset < DVDBinaryFormat.HEADER_SIZE
+                || tableOffset > size - DVDBinaryFormat.FOOTER_SIZE) {
+                throw new IOException(source + " is not a binary DVD library");
+            }
+
+            String[] strings = readStringTable(
+                tableOffset, size - DVDBinaryFormat.FOOTER_SIZE
+            );
+
+            startReading(0, tableOffset);
+            require(DVDBinaryFormat.HEADER_SIZE);
+            if (buf.getInt() != DVDBinaryFormat.MAGIC) {
+                throw new IOException(source + " is not a binary DVD library");
+            }
+            short version = buf.getShort();
+            if (version != DVDBinaryFormat.VERSION) {
+                throw new IOException("Unsupported binary DVD library version " + version);
+            }
+
+            for (long i = 0; i < recordCount; i++) {
+                sink.accept(readRecord(strings));
+            }
+        } finally {
+            channel = null;
+        }
+    }
+
+    private String[] readStringTable(long start, long end) throws IOException {
+        startReading(start, end);
+        int count = readVarInt();
+        // every string takes at least a byte
+        if (count < 0 || count > buf.remaining() + remainingInFile) {
+            throw new IOException("Corrupt binary DVD library: string table of " + count);
+        }
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = readString();
+        }
+        return strings;
+    }
+
+    private DVD readRecord(String[] strings) throws IOException {
+        builder.title(readString());
+        require(Integer.BYTES);
+        builder.releaseEpochDay(buf.getInt());
+        String mpaaRating = readTableString(strings);
+        builder.mpaaRating(MpaaRating.fromLabel(mpaaRating).orElseThrow(
+            () -> new IOException("Corrupt binary DVD library: MPAA rating " + mpaaRating)
+        ));
+        builder.directorName(readTableString(strings));
+        builder.studio(readTableString(strings));
+        require(1);
+        byte rating = buf.get();
+        if (rating < 0) {
+            throw new IOException("Corrupt binary DVD library: rating " + rating);
+        }
+        builder.rating(rating);
+        return builder.note(readString()).build();
+    }
+
+    private String readTableString(String[] strings) throws IOException {
+        int index = readVarInt();
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Corrupt binary DVD library: string " + index);
+        }
+        return strings[index];
+    }
+
+    private String readString() throws IOException {
+        int length = readVarInt();
+        if (length < 0 || length > buf.remaining() + remainingInFile) {
+            throw new IOException("Corrupt binary DVD library: string of " + length + " bytes");
+        }
+        require(length);
+        String string = new String(
+            buf.array(), buf.arrayOffset() + buf.position(), length,
+            StandardCharsets.UTF_8
+        );
+        buf.position(buf.position() + length);
+        return string;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            require(1);
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt binary DVD library");
+    }
+
+    /**
+     * Positions the channel so the buffer is refilled from the start offset,
+     * never reading past the end offset
+     */
+    private void startReading(long start, long end) throws IOException {
+        channel.position(start);
+        remainingInFile = end - start;
+        buf.clear();
+        buf.limit(0);
+    }
+
+    /**
+     * Makes sure the buffer holds at least the given number of unread bytes
+     */
+    private void require(int size) throws IOException {
+        if (buf.remaining() >= size) {
+            return;
+        }
+        if (buf.capacity() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(size);
+            larger.put(buf);
+            buf = larger;
+        } else {
+            buf.compact();
+        }
+        while (buf.position() < size) {
+            int wanted = (int) Math.min(buf.remaining(), remainingInFile);
+            if (wanted <= 0) {
+                throw new IOException("Truncated binary DVD library");
+            }
+            int oldLimit = buf.limit();
+            buf.limit(buf.position() + wanted);
+            int read = channel.read(buf);
+            buf.limit(oldLimit);
+            if (read < 0) {
+                throw new IOException("Truncated binary DVD library");
+            }
+            remainingInFile -= read;
+        }
+        buf.flip();
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) < 0) {
+                throw new IOException("Truncated binary DVD library");
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Write DVDs out in the binary file format
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes DVDs to a channel in the format described by DVDBinaryFormat.
+ *
+ * The heavily repeated MPAA ratings, directors and studios are each stored
+ * once in a string table and referred to by index from the records
+ *
+ * @author agent
+ */
+public class DVDBinaryFileWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private long recordCount;
+
+    /**
+     * Creates a new instance of this class that writes to the channel,
+     * starting with the file header
+     *
+     * @param channel
+     */
+    public DVDBinaryFileWriter(FileChannel channel) {
+        this.channel = channel;
+        buf.putInt(DVDBinaryFormat.MAGIC);
+        buf.putShort(DVDBinaryFormat.VERSION);
+    }
+
+    /**
+     * Replaces the target file with the given DVDs in the binary format,
+     * through a temporary file that is forced to disk and renamed over it
+     *
+     * @param target
+     * @param dvds
+     * @return The number of bytes written
+     * @throws IOException If the DVDs cannot be written; the target is left
+     * untouched in that case
+     */
+    public static long writeAtomically(Path target, Iterable<DVD> dvds)
+        throws IOException {
+        return AtomicFiles.write(target, channel -> {
+            DVDBinaryFileWriter writer = new DVDBinaryFileWriter(channel);
+            for (DVD dvd : dvds) {
+                writer.append(dvd);
+            }
+            writer.finish();
+        });
+    }
+
+    /**
+     * Writes the record of the DVD
+     *
+     * @param dvd
+     * @throws IOException If the record cannot be written, or exceeds the
+     * maximum record size
+     */
+    public void append(DVD dvd) throws IOException {
+        byte[] title = dvd.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] note = dvd.getNote().getBytes(StandardCharsets.UTF_8);
+        // 5 bytes for each varint, 4 for the date and 1 for the rating
+        int maxSize = title.length + note.length + 5 * 5 + 4 + 1;
+        // shared strings are bounded too, since readers map the table the same way
+        int maxSharedSize = 3 * (dvd.getMpaaRating().getLabel().length()
+            + dvd.getDirectorName().length() + dvd.getStudio().length());
+        if (maxSize + maxSharedSize > DVDBinaryFormat.MAX_RECORD_SIZE) {
+            throw new IOException("The record for " + dvd.getTitle() + " is too large");
+        }
+        ensureRemaining(maxSize);
+
+        putBytes(title);
+        buf.putInt(dvd.getReleaseEpochDay());
+        putVarInt(indexOf(dvd.getMpaaRating().getLabel()));
+        putVarInt(indexOf(dvd.getDirectorName()));
+        putVarInt(indexOf(dvd.getStudio()));
+        buf.put((byte) dvd.getRating());
+        putBytes(note);
+        recordCount++;
+    }
+
+    /**
+     * Writes the string table and footer, completing the file
+     *
+     * @throws IOException If they cannot be written
+     */
+    public void finish() throws IOException {
+        drain();
+        long tableOffset = channel.position();
+
+        ensureRemaining(5);
+        putVarInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(bytes.length + 5);
+            putBytes(bytes);
+        }
+
+        ensureRemaining(DVDBinaryFormat.FOOTER_SIZE);
+        buf.putLong(tableOffset);
+        buf.putLong(recordCount);
+        buf.putInt(DVDBinaryFormat.MAGIC);
+        drain();
+    }
+
+    private int indexOf(String string) {
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndexes.put(string, index);
+        }
+        return index;
+    }
+
+    private void putBytes(byte[] bytes) {
+        putVarInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    private void ensureRemaining(int size) throws IOException {
+        if (buf.remaining() >= size) {
+            return;
+        }
+        drain();
+        if (buf.capacity() < size) {
+            buf = ByteBuffer.allocate(size);
+        }
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
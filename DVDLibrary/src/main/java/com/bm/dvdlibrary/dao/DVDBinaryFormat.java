@@ -0,0 +1,45 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Describe the layout of the binary DVD library file
+ */
+
+package com.bm.dvdlibrary.dao;
+
+/**
+ * Constants describing the versioned binary file format.
+ *
+ * A file consists of
+ * - a header: the magic number and the format version
+ * - the records, one per DVD, each made of
+ *   - the title, as a length-prefixed UTF-8 string
+ *   - the release date, as a 4 byte epoch day
+ *   - the MPAA rating, director and studio, as string table indexes
+ *   - the user rating, as a single byte
+ *   - the note, as a length-prefixed UTF-8 string
+ * - the string table, holding every distinct MPAA rating, director and
+ *   studio once, as a count followed by length-prefixed UTF-8 strings
+ * - a footer: the offset of the string table, the record count and the
+ *   magic number again
+ *
+ * Lengths, counts and string table indexes are unsigned variable-length
+ * ints, 7 bits per byte, least significant group first.
+ *
+ * No record may exceed MAX_RECORD_SIZE bytes, which lets readers map a
+ * large file as overlapping segments that each wholly contain every
+ * record starting inside them
+ *
+ * @author agent
+ */
+final class DVDBinaryFormat {
+    static final int MAGIC = 0x44564442; // "DVDB"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    static final int FOOTER_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+    static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private DVDBinaryFormat() {
+    }
+}
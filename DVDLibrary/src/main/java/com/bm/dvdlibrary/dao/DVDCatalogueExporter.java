@@ -0,0 +1,109 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Export the collection as a catalogue of DVDs
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the collection of a DAO as a catalogue in CSV or JSON Lines,
+ * which DVDCatalogueImporter reads back in.
+ *
+ * The collection is streamed through streamDVDs(), so a DAO that does not
+ * hold its collection in memory never has to materialize it
+ *
+ * @author agent
+ */
+public final class DVDCatalogueExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private DVDCatalogueExporter() {
+    }
+
+    /**
+     * Replaces the catalogue file, whose format is determined by its
+     * extension, with the collection of the DAO
+     *
+     * @param dao
+     * @param target
+     * @return The number of DVDs exported
+     * @throws DVDLibraryDaoException If the file cannot be written; it is
+     * left untouched in that case
+     */
+    public static long exportTo(DVDLibraryDao dao, Path target)
+        throws DVDLibraryDaoException {
+        DVDCatalogueFormat format = DVDCatalogueFormat.of(target);
+        long[] count = new long[1];
+        try {
+            AtomicFiles.write(target, channel -> {
+                Writer out = new BufferedWriter(
+                    Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE
+                );
+                count[0] = exportTo(dao, out, format);
+                out.flush();
+            });
+        } catch (IOException ex) {
+            throw new DVDLibraryDaoException("Unable to export dvds to " + target, ex);
+        }
+        return count[0];
+    }
+
+    /**
+     * Writes the collection of the DAO to the stream as a catalogue. The
+     * stream is neither flushed nor closed
+     *
+     * @param dao
+     * @param out
+     * @param format
+     * @return The number of DVDs exported
+     * @throws IOException If the stream cannot be written
+     */
+    public static long exportTo(DVDLibraryDao dao, Writer out, DVDCatalogueFormat format)
+        throws IOException {
+        StringBuilder record = new StringBuilder();
+        format.formatHeader(record);
+        out.append(record);
+        long count = 0;
+        try (Stream<DVD> dvds = dao.streamDVDs()) {
+            Iterator<DVD> iterator = dvds.iterator();
+            while (iterator.hasNext()) {
+                record.setLength(0);
+                format.format(iterator.next(), record);
+                out.append(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Exports a text library from the command line, e.g.
+     * DVDCatalogueExporter dvds.txt catalogue.jsonl
+     *
+     * @param args The library followed by the catalogue
+     * @throws DVDLibraryDaoException If the export fails
+     */
+    public static void main(String[] args) throws DVDLibraryDaoException {
+        if (args.length != 2) {
+            System.err.println("Usage: DVDCatalogueExporter <library> <catalogue>");
+            System.exit(2);
+        }
+        DVDLibraryDaoImpl library = new DVDLibraryDaoImpl(args[0]);
+        library.loadDVDsFromExternal();
+        System.err.println(exportTo(library, Paths.get(args[1])) + " DVD(s) exported");
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Enumerate the formats DVD catalogues are exchanged in
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.BufferedReader;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The formats in which DVD catalogues are imported and exported. Either
+ * way, each record has the fields title, releaseDate (as yyyy-mm-dd),
+ * mpaaRating, directorName, studio, rating and note
+ *
+ * @author agent
+ */
+public enum DVDCatalogueFormat {
+    /**
+     * Comma-separated values, with a header naming the fields
+     */
+    CSV {
+        @Override
+        CatalogueRecordReader newReader(BufferedReader in) {
+            return new CsvRecordReader(in);
+        }
+
+        @Override
+        void formatHeader(StringBuilder out) {
+            out.append(String.join(",", CatalogueRecord.FIELDS)).append(LINE_SEPARATOR);
+        }
+
+        @Override
+        void format(DVD dvd, StringBuilder out) {
+            appendCsvField(dvd.getTitle(), out);
+            out.append(',').append(dvd.getReleaseDate()).append(',')
+                .append(dvd.getMpaaRating().getLabel()).append(',');
+            appendCsvField(dvd.getDirectorName(), out);
+            out.append(',');
+            appendCsvField(dvd.getStudio(), out);
+            out.append(',').append(dvd.getRating()).append(',');
+            appendCsvField(dvd.getNote(), out);
+            out.append(LINE_SEPARATOR);
+        }
+    },
+
+    /**
+     * One flat JSON object per line
+     */
+    JSON_LINES {
+        @Override
+        CatalogueRecordReader newReader(BufferedReader in) {
+            return new JsonLinesRecordReader(in);
+        }
+
+        @Override
+        void formatHeader(StringBuilder out) {
+        }
+
+        @Override
+        void format(DVD dvd, StringBuilder out) {
+            DVDJsonCodec.format(dvd, out);
+            out.append(LINE_SEPARATOR);
+        }
+    };
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Determines the format of a catalogue file from its extension: .csv
+     * for CSV, and .jsonl, .ndjson or .json for JSON Lines
+     *
+     * @param file
+     * @return The aforementioned format
+     * @throws IllegalArgumentException If the extension is none of those
+     */
+    public static DVDCatalogueFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Unknown catalogue format for " + file);
+    }
+
+    /**
+     * Starts reading the records of a catalogue in this format
+     */
+    abstract CatalogueRecordReader newReader(BufferedReader in);
+
+    /**
+     * Appends whatever precedes the records of a catalogue in this format
+     */
+    abstract void formatHeader(StringBuilder out);
+
+    /**
+     * Appends the record for the DVD, followed by a line separator
+     */
+    abstract void format(DVD dvd, StringBuilder out);
+
+    private static void appendCsvField(String value, StringBuilder out) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
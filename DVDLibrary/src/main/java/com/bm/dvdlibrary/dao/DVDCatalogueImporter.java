@@ -0,0 +1,429 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Import supplier catalogues of DVDs into the collection
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Imports catalogues of DVDs in CSV or JSON Lines into the collection of
+ * a DAO.
+ *
+ * The catalogue is parsed on one thread into batches of records, which
+ * are validated in parallel and then added to the DAO on the calling
+ * thread, in catalogue order. Only a bounded number of batches are
+ * between these stages at a time, so the catalogue is never held in
+ * memory as a whole. Records
+ * are validated as the view validates what the user types, and invalid
+ * records are left out and reported rather than ending the import.
+ *
+ * The DAO is only modified on the calling thread, so it needs no
+ * synchronization of its own
+ *
+ * @author agent
+ */
+public class DVDCatalogueImporter {
+    /**
+     * What is done with a record whose title is already in the collection
+     */
+    public enum ConflictPolicy {
+        /**
+         * The DVD in the collection is kept and the record left out
+         */
+        SKIP,
+
+        /**
+         * The DVD in the collection is replaced by the record
+         */
+        OVERWRITE,
+
+        /**
+         * The import stops with an error; records imported before it
+         * remain in the collection
+         */
+        FAIL
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final int QUEUED_BATCHES_PER_THREAD = 4;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Only this many invalid records are described individually; the rest
+     * are only counted
+     */
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    /**
+     * Marks the end of the batches on a queue
+     */
+    private static final RecordBatch END = new RecordBatch(-1);
+
+    private final DVDLibraryDao dao;
+    private ConflictPolicy conflictPolicy = ConflictPolicy.SKIP;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Consumer<DVDImportReport> progressListener = report -> { };
+
+    /**
+     * Creates a new instance of this class that imports into the
+     * collection of the given DAO
+     *
+     * @param dao
+     */
+    public DVDCatalogueImporter(DVDLibraryDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Sets what is done with records whose title is already in the
+     * collection. SKIP by default
+     *
+     * @param conflictPolicy
+     */
+    public void setConflictPolicy(ConflictPolicy conflictPolicy) {
+        this.conflictPolicy = conflictPolicy;
+    }
+
+    /**
+     * Sets the number of threads that validate records
+     *
+     * @param parallelism
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of records handed between threads at a time
+     *
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets what is told of the progress of an import, about once a second
+     * and once more when it is over, on the thread running the import
+     *
+     * @param progressListener
+     */
+    public void setProgressListener(Consumer<DVDImportReport> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Imports the catalogue file, whose format is determined by its
+     * extension
+     *
+     * @param source
+     * @return A report of what was imported
+     * @throws DVDLibraryDaoException If the file cannot be read, or a title
+     * conflicts with the collection under the FAIL policy
+     */
+    public DVDImportReport importFrom(Path source) throws DVDLibraryDaoException {
+        DVDCatalogueFormat format = DVDCatalogueFormat.of(source);
+        try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            return importFrom(in, format);
+        } catch (IOException ex) {
+            throw new DVDLibraryDaoException("Unable to import dvds from " + source, ex);
+        }
+    }
+
+    /**
+     * Imports the catalogue read from the stream
+     *
+     * @param source
+     * @param format
+     * @return A report of what was imported
+     * @throws IOException If the stream cannot be read
+     * @throws DVDLibraryDaoException If a title conflicts with the
+     * collection under the FAIL policy
+     */
+    public DVDImportReport importFrom(BufferedReader source, DVDCatalogueFormat format)
+        throws IOException, DVDLibraryDaoException {
+        CatalogueRecordReader records = format.newReader(source);
+        int validators = Math.max(1, parallelism);
+        BlockingQueue<RecordBatch> parsed =
+            new ArrayBlockingQueue<>(validators * QUEUED_BATCHES_PER_THREAD);
+        BlockingQueue<RecordBatch> validated =
+            new ArrayBlockingQueue<>(validators * QUEUED_BATCHES_PER_THREAD);
+        // enough for both queues to fill up while every thread is validating
+        Semaphore inFlight =
+            new Semaphore(validators * (2 * QUEUED_BATCHES_PER_THREAD + 1));
+        Tally tally = new Tally();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(validators + 1, runnable -> {
+            Thread thread = new Thread(
+                runnable, "dvd-import-" + threadCount.getAndIncrement()
+            );
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> reading = executor.submit(() -> {
+                readBatches(records, parsed, inFlight, validators);
+                return null;
+            });
+            for (int i = 0; i < validators; i++) {
+                executor.execute(() -> validateBatches(parsed, validated));
+            }
+            insertBatches(validated, inFlight, validators, tally);
+            reading.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DVDLibraryDaoException("Import was interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IllegalStateException("Unable to read catalogue", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DVDImportReport report = tally.snapshot();
+        progressListener.accept(report);
+        return report;
+    }
+
+    /**
+     * Parses the catalogue into batches on the parsed queue, followed by an
+     * end marker for each validating thread. Each batch takes a permit
+     * until it is inserted
+     */
+    private void readBatches(
+        CatalogueRecordReader records, BlockingQueue<RecordBatch> parsed,
+        Semaphore inFlight, int validators
+    ) throws IOException, InterruptedException {
+        try {
+            long sequence = 0;
+            RecordBatch batch = new RecordBatch(sequence++);
+            for (CatalogueRecord record = records.next(); record != null;
+                record = records.next()) {
+                batch.records.add(record);
+                if (batch.records.size() == batchSize) {
+                    inFlight.acquire();
+                    parsed.put(batch);
+                    batch = new RecordBatch(sequence++);
+                }
+            }
+            if (!batch.records.isEmpty()) {
+                inFlight.acquire();
+                parsed.put(batch);
+            }
+        } finally {
+            for (int i = 0; i < validators; i++) {
+                parsed.put(END);
+            }
+        }
+    }
+
+    /**
+     * Validates batches from the parsed queue onto the validated queue
+     * until the end marker, which is passed on
+     */
+    private static void validateBatches(
+        BlockingQueue<RecordBatch> parsed, BlockingQueue<RecordBatch> validated
+    ) {
+        try {
+            try {
+                for (RecordBatch batch = parsed.take(); batch != END; batch = parsed.take()) {
+                    batch.validate();
+                    validated.put(batch);
+                }
+            } finally {
+                validated.put(END);
+            }
+        } catch (InterruptedException ex) {
+            // the import is being abandoned
+        }
+    }
+
+    /**
+     * Adds the validated batches to the DAO in catalogue order, until every
+     * validating thread has passed on its end marker, and gives back the
+     * permit of each
+     */
+    private void insertBatches(
+        BlockingQueue<RecordBatch> validated, Semaphore inFlight, int validators,
+        Tally tally
+    ) throws InterruptedException, DVDLibraryDaoException {
+        // batches finish validation out of order, so later ones wait here
+        // for the next to be inserted, which already holds a permit
+        Map<Long, RecordBatch> waiting = new HashMap<>();
+        long next = 0;
+        int ended = 0;
+        long lastProgress = System.nanoTime();
+        while (ended < validators) {
+            RecordBatch batch = validated.take();
+            if (batch == END) {
+                ended++;
+                continue;
+            }
+            waiting.put(batch.sequence, batch);
+            for (RecordBatch ready = waiting.remove(next); ready != null;
+                ready = waiting.remove(++next)) {
+                insert(ready, tally);
+                inFlight.release();
+            }
+            if (System.nanoTime() - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                progressListener.accept(tally.snapshot());
+                lastProgress = System.nanoTime();
+            }
+        }
+        if (!waiting.isEmpty()) {
+            throw new IllegalStateException(
+                "Batch " + next + " of the catalogue was lost in validation"
+            );
+        }
+    }
+
+    private void insert(RecordBatch batch, Tally tally) throws DVDLibraryDaoException {
+        for (int i = 0; i < batch.errorLines.size(); i++) {
+            tally.recordError(batch.errorLines.get(i), batch.errorReasons.get(i));
+        }
+        for (int i = 0; i < batch.dvds.size(); i++) {
+            DVD dvd = batch.dvds.get(i);
+            if (dao.addDVD(dvd).isPresent()) {
+                tally.added++;
+                continue;
+            }
+            switch (conflictPolicy) {
+                case OVERWRITE:
+                    dao.saveDVD(dvd);
+                    tally.replaced++;
+                    break;
+                case FAIL:
+                    throw new DVDLibraryDaoException(
+                        "line " + batch.dvdLines.get(i) + ": a DVD titled \""
+                        + dvd.getTitle() + "\" is already in the collection; "
+                        + tally.snapshot().describe()
+                    );
+                default:
+                    tally.skipped++;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Imports a catalogue into a text library from the command line, e.g.
+     * DVDCatalogueImporter dvds.txt supplier.csv overwrite
+     *
+     * @param args The library, the catalogue and optionally the conflict
+     * policy (skip, overwrite or fail)
+     * @throws DVDLibraryDaoException If the import fails
+     */
+    public static void main(String[] args) throws DVDLibraryDaoException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println(
+                "Usage: DVDCatalogueImporter <library> <catalogue> [skip|overwrite|fail]"
+            );
+            System.exit(2);
+        }
+        DVDLibraryDaoImpl library = new DVDLibraryDaoImpl(args[0]);
+        if (Files.exists(Paths.get(args[0]))) {
+            library.loadDVDsFromExternal();
+        }
+        DVDCatalogueImporter importer = new DVDCatalogueImporter(library);
+        if (args.length == 3) {
+            importer.setConflictPolicy(
+                ConflictPolicy.valueOf(args[2].toUpperCase(Locale.ROOT))
+            );
+        }
+        importer.setProgressListener(report -> System.err.println(report.describe()));
+        DVDImportReport report = importer.importFrom(Paths.get(args[1]));
+        for (String error : report.getErrors()) {
+            System.err.println(error);
+        }
+        library.saveDVDsToExternal();
+    }
+
+    /**
+     * Records handed between the stages of an import, and what validation
+     * made of them
+     */
+    private static class RecordBatch {
+        private final long sequence;
+        private final List<CatalogueRecord> records = new ArrayList<>();
+        private final List<DVD> dvds = new ArrayList<>();
+        private final List<Long> dvdLines = new ArrayList<>();
+        private final List<Long> errorLines = new ArrayList<>();
+        private final List<String> errorReasons = new ArrayList<>();
+
+        private RecordBatch(long sequence) {
+            this.sequence = sequence;
+        }
+
+        private void validate() {
+            for (CatalogueRecord record : records) {
+                try {
+                    dvds.add(record.toDVD());
+                    dvdLines.add(record.getLineNumber());
+                } catch (IllegalArgumentException ex) {
+                    errorLines.add(record.getLineNumber());
+                    errorReasons.add(ex.getMessage());
+                } catch (RuntimeException ex) {
+                    // reported against the record, so the batch is not lost
+                    errorLines.add(record.getLineNumber());
+                    errorReasons.add("unable to validate: " + ex);
+                }
+            }
+            records.clear();
+        }
+    }
+
+    /**
+     * The counts behind the reports of an import in progress
+     */
+    private static class Tally {
+        private final long start = System.nanoTime();
+        private final List<String> errors = new ArrayList<>();
+        private long added;
+        private long replaced;
+        private long skipped;
+        private long invalid;
+
+        private void recordError(long lineNumber, String reason) {
+            invalid++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        private DVDImportReport snapshot() {
+            return new DVDImportReport(
+                added, replaced, skipped, invalid, errors, System.nanoTime() - start
+            );
+        }
+    }
+}
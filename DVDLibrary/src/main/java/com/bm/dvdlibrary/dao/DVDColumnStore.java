@@ -0,0 +1,216 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Keep a column-oriented copy of the collection for fast scans
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * A read-optimized copy of the collection held column by column: release
+ * days and ratings in primitive arrays, MPAA ratings, directors and
+ * studios as dictionary codes, and the DVDs themselves alongside.
+ *
+ * Queries run as one tight pass per criterion over a single array,
+ * narrowing a selection of rows, rather than visiting every field of
+ * every DVD. Removing a DVD moves the last row into its place, so the
+ * columns never have gaps. Dictionary entries are never removed, since
+ * the number of distinct directors and studios is small
+ *
+ * @author agent
+ */
+public class DVDColumnStore implements DVDIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private DVD[] dvds = new DVD[INITIAL_CAPACITY];
+    private int[] releaseDays = new int[INITIAL_CAPACITY];
+    private byte[] ratings = new byte[INITIAL_CAPACITY];
+    private byte[] mpaaRatings = new byte[INITIAL_CAPACITY];
+    private int[] directors = new int[INITIAL_CAPACITY];
+    private int[] studios = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final Map<String, Integer> rowsByTitle = new HashMap<>();
+    private final Map<String, Integer> directorCodes = new HashMap<>();
+    private final Map<String, Integer> studioCodes = new HashMap<>();
+
+    @Override
+    public void clear() {
+        Arrays.fill(dvds, 0, size, null);
+        size = 0;
+        rowsByTitle.clear();
+        directorCodes.clear();
+        studioCodes.clear();
+    }
+
+    @Override
+    public void add(DVD dvd) {
+        if (size == dvds.length) {
+            int capacity = size * 2;
+            dvds = Arrays.copyOf(dvds, capacity);
+            releaseDays = Arrays.copyOf(releaseDays, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            mpaaRatings = Arrays.copyOf(mpaaRatings, capacity);
+            directors = Arrays.copyOf(directors, capacity);
+            studios = Arrays.copyOf(studios, capacity);
+        }
+        int row = size++;
+        dvds[row] = dvd;
+        releaseDays[row] = dvd.getReleaseEpochDay();
+        ratings[row] = (byte) dvd.getRating();
+        mpaaRatings[row] = (byte) dvd.getMpaaRating().ordinal();
+        directors[row] = encode(directorCodes, dvd.getDirectorName());
+        studios[row] = encode(studioCodes, dvd.getStudio());
+        rowsByTitle.put(dvd.getTitle(), row);
+    }
+
+    @Override
+    public void remove(DVD dvd) {
+        Integer row = rowsByTitle.remove(dvd.getTitle());
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            dvds[row] = dvds[last];
+            releaseDays[row] = releaseDays[last];
+            ratings[row] = ratings[last];
+            mpaaRatings[row] = mpaaRatings[last];
+            directors[row] = directors[last];
+            studios[row] = studios[last];
+            rowsByTitle.put(dvds[row].getTitle(), row);
+        }
+        dvds[last] = null;
+    }
+
+    /**
+     * Obtains the number of DVDs in the store
+     *
+     * @return The aforementioned number
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds every DVD that meets all the criteria of the query
+     *
+     * @param query
+     * @return A List of the matching DVDs, in no particular order
+     */
+    public List<DVD> filter(DVDQuery query) {
+        boolean[] selected = select(query);
+        List<DVD> matches = new ArrayList<>();
+        for (int row = 0; row < selected.length; row++) {
+            if (selected[row]) {
+                matches.add(dvds[row]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Counts the DVDs that meet all the criteria of the query
+     *
+     * @param query
+     * @return The aforementioned count
+     */
+    public long count(DVDQuery query) {
+        boolean[] selected = select(query);
+        long count = 0;
+        for (int row = 0; row < selected.length; row++) {
+            count += selected[row] ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Averages the user ratings of the DVDs that meet all the criteria of
+     * the query
+     *
+     * @param query
+     * @return The aforementioned average, or an empty instance if no DVD
+     * meets them
+     */
+    public OptionalDouble averageRating(DVDQuery query) {
+        boolean[] selected = select(query);
+        long count = 0;
+        long sum = 0;
+        for (int row = 0; row < selected.length; row++) {
+            int hit = selected[row] ? 1 : 0;
+            count += hit;
+            sum += hit * ratings[row];
+        }
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sum / count);
+    }
+
+    /**
+     * Narrows the selection of rows by each criterion of the query in turn,
+     * each in a single branch-free pass over its column
+     *
+     * @return Whether each row meets every criterion
+     */
+    private boolean[] select(DVDQuery query) {
+        int rows = size;
+        boolean[] selected = new boolean[rows];
+        Arrays.fill(selected, true);
+
+        if (query.getDirectorName() != null) {
+            int code = directorCodes.getOrDefault(query.getDirectorName(), -1);
+            int[] column = directors;
+            for (int row = 0; row < rows; row++) {
+                selected[row] &= column[row] == code;
+            }
+        }
+        if (query.getStudio() != null) {
+            int code = studioCodes.getOrDefault(query.getStudio(), -1);
+            int[] column = studios;
+            for (int row = 0; row < rows; row++) {
+                selected[row] &= column[row] == code;
+            }
+        }
+        if (query.getMpaaRating() != null) {
+            byte code = (byte) query.getMpaaRating().ordinal();
+            byte[] column = mpaaRatings;
+            for (int row = 0; row < rows; row++) {
+                selected[row] &= column[row] == code;
+            }
+        }
+        if (query.hasReleaseRange()) {
+            int min = query.getMinReleaseEpochDay();
+            int max = query.getMaxReleaseEpochDay();
+            int[] column = releaseDays;
+            for (int row = 0; row < rows; row++) {
+                selected[row] &= column[row] >= min & column[row] <= max;
+            }
+        }
+        if (query.hasRatingRange()) {
+            int min = query.getMinRating();
+            int max = query.getMaxRating();
+            byte[] column = ratings;
+            for (int row = 0; row < rows; row++) {
+                selected[row] &= column[row] >= min & column[row] <= max;
+            }
+        }
+        return selected;
+    }
+
+    private static int encode(Map<String, Integer> codes, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = codes.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+}
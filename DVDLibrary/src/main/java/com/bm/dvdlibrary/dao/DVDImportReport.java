@@ -0,0 +1,126 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Describe the progress and outcome of a catalogue import
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How far a catalogue import has got and what it has done with the records
+ * read so far. Reports are immutable snapshots
+ *
+ * @author agent
+ */
+public final class DVDImportReport {
+    private final long addedCount;
+    private final long replacedCount;
+    private final long skippedCount;
+    private final long invalidCount;
+    private final List<String> errors;
+    private final long elapsedNanos;
+
+    DVDImportReport(
+        long addedCount, long replacedCount, long skippedCount, long invalidCount,
+        List<String> errors, long elapsedNanos
+    ) {
+        this.addedCount = addedCount;
+        this.replacedCount = replacedCount;
+        this.skippedCount = skippedCount;
+        this.invalidCount = invalidCount;
+        this.errors = List.copyOf(errors);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Obtains the number of records dealt with so far, whatever their fate
+     *
+     * @return The aforementioned number
+     */
+    public long getRecordCount() {
+        return addedCount + replacedCount + skippedCount + invalidCount;
+    }
+
+    /**
+     * Obtains the number of DVDs added to the collection
+     *
+     * @return The aforementioned number
+     */
+    public long getAddedCount() {
+        return addedCount;
+    }
+
+    /**
+     * Obtains the number of DVDs in the collection that were replaced by
+     * those with the same title in the catalogue
+     *
+     * @return The aforementioned number
+     */
+    public long getReplacedCount() {
+        return replacedCount;
+    }
+
+    /**
+     * Obtains the number of records left out because a DVD with the same
+     * title was already in the collection
+     *
+     * @return The aforementioned number
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Obtains the number of records left out because they were invalid
+     *
+     * @return The aforementioned number
+     */
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * Obtains descriptions of the first invalid records
+     *
+     * @return The aforementioned descriptions, each naming its line number
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Obtains the number of records dealt with per second so far
+     *
+     * @return The aforementioned number
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getRecordCount() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Summarizes this report in a single line
+     *
+     * @return The aforementioned summary
+     */
+    public String describe() {
+        return String.format(
+            "%d record(s) in %.1f s (%.0f/s): %d added, %d replaced, %d skipped, %d invalid",
+            getRecordCount(), elapsedNanos / 1e9, getRecordsPerSecond(),
+            addedCount, replacedCount, skippedCount, invalidCount
+        );
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Keep a derived structure in step with the collection
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * A structure derived from the collection, such as an index, that
+ * DVDLibraryIndexedDao keeps up to date as DVDs are added, edited and
+ * removed. An edit is reported as the removal of the old DVD followed by
+ * the addition of the new one.
+ *
+ * Implementations need not be thread-safe with respect to these methods,
+ * since they are only called while no searches are running
+ *
+ * @author agent
+ */
+public interface DVDIndex {
+    /**
+     * Forgets every DVD, before the collection is reloaded
+     */
+    public void clear();
+
+    /**
+     * Records a DVD that has been added to the collection
+     * @param dvd
+     */
+    public void add(DVD dvd);
+
+    /**
+     * Forgets a DVD that has been removed from the collection
+     * @param dvd
+     */
+    public void remove(DVD dvd);
+
+    /**
+     * Restores the index from somewhere it was persisted, instead of being
+     * rebuilt, if what was persisted describes exactly the given collection.
+     *
+     * This default implementation restores nothing
+     *
+     * @param dvds The collection that was just loaded
+     * @return Whether the index was restored
+     */
+    public default boolean restore(Collection<DVD> dvds) {
+        return false;
+    }
+
+    /**
+     * Persists the index, after the collection has been saved.
+     *
+     * This default implementation persists nothing
+     *
+     * @throws IOException
+     */
+    public default void persist() throws IOException {
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Convert between DVDs and JSON objects
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+
+/**
+ * Converts between DVDs and flat JSON objects with the members title,
+ * releaseDate (as yyyy-mm-dd), mpaaRating, directorName, studio, rating
+ * and note, as found in JSON Lines catalogues
+ *
+ * @author agent
+ */
+public final class DVDJsonCodec {
+
+    private DVDJsonCodec() {
+    }
+
+    /**
+     * Appends the JSON object for the DVD
+     *
+     * @param dvd
+     * @param out
+     */
+    public static void format(DVD dvd, StringBuilder out) {
+        out.append("{\"").append(CatalogueRecord.TITLE).append("\":");
+        appendString(dvd.getTitle(), out);
+        out.append(",\"").append(CatalogueRecord.RELEASE_DATE).append("\":\"")
+            .append(dvd.getReleaseDate()).append('"');
+        out.append(",\"").append(CatalogueRecord.MPAA_RATING).append("\":\"")
+            .append(dvd.getMpaaRating().getLabel()).append('"');
+        out.append(",\"").append(CatalogueRecord.DIRECTOR_NAME).append("\":");
+        appendString(dvd.getDirectorName(), out);
+        out.append(",\"").append(CatalogueRecord.STUDIO).append("\":");
+        appendString(dvd.getStudio(), out);
+        out.append(",\"").append(CatalogueRecord.RATING).append("\":")
+            .append(dvd.getRating());
+        out.append(",\"").append(CatalogueRecord.NOTE).append("\":");
+        appendString(dvd.getNote(), out);
+        out.append('}');
+    }
+
+    /**
+     * Parses a JSON object describing a DVD, validating its members as
+     * catalogue imports do. The note may be omitted
+     *
+     * @param json
+     * @return The aforementioned DVD
+     * @throws IllegalArgumentException If the text is not such an object,
+     * naming what is wrong with it
+     */
+    public static DVD parse(String json) {
+        return CatalogueRecord.of(1, JsonLinesRecordReader.parse(json)).toDVD();
+    }
+
+    /**
+     * Appends the value as a JSON string literal
+     *
+     * @param value
+     * @param out
+     */
+    public static void appendString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+        out.append('"');
+    }
+}
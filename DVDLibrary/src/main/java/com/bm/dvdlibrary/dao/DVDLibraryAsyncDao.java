@@ -0,0 +1,120 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Provide DAO services without blocking the caller
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * Provides the services of DVDLibraryDao asynchronously: every method
+ * returns at once, and its outcome is delivered through a
+ * CompletableFuture or a Flow.Publisher.
+ *
+ * Operations issued while the collection is still loading take effect
+ * once it has loaded, in the order they were issued. Loading and saving
+ * fail with a DVDLibraryDaoException as their cause
+ *
+ * @author agent
+ */
+public interface DVDLibraryAsyncDao extends AutoCloseable {
+    /**
+     * Starts loading DVDs from an external source into memory
+     *
+     * @return A future completed once the collection has loaded
+     */
+    public CompletableFuture<Void> loadDVDsFromExternal();
+
+    /**
+     * Attempts to add the DVD into the collection, as in
+     * DVDLibraryDao.addDVD()
+     *
+     * @param subject
+     * @return A future of the DVD added, or of an empty instance
+     */
+    public CompletableFuture<Optional<DVD>> addDVD(DVD subject);
+
+    /**
+     * Attempts to remove the DVD with the given title, as in
+     * DVDLibraryDao.removeDVD()
+     *
+     * @param title
+     * @return A future of the DVD removed, or of an empty instance
+     */
+    public CompletableFuture<Optional<DVD>> removeDVD(String title);
+
+    /**
+     * Attempts to replace the DVD with the same title, as in
+     * DVDLibraryDao.saveDVD()
+     *
+     * @param modifiedDVD
+     * @return A future of the DVD stored, or of an empty instance
+     */
+    public CompletableFuture<Optional<DVD>> saveDVD(DVD modifiedDVD);
+
+    /**
+     * Attempts to replace the DVD with the same title only if it is still
+     * the expected one, as in DVDLibraryDao.replaceDVD()
+     *
+     * @param expectedDVD
+     * @param modifiedDVD
+     * @return A future of the DVD stored, or of an empty instance
+     */
+    public CompletableFuture<Optional<DVD>> replaceDVD(DVD expectedDVD, DVD modifiedDVD);
+
+    /**
+     * Looks up the DVD with the given title
+     *
+     * @param title
+     * @return A future of the aforementioned DVD, or of an empty instance
+     */
+    public CompletableFuture<Optional<DVD>> getDVDByTitle(String title);
+
+    /**
+     * Obtains every DVD in the collection
+     *
+     * @return A future of a List of the aforementioned DVDs
+     */
+    public CompletableFuture<List<DVD>> getAllDVDs();
+
+    /**
+     * Obtains a Publisher of every DVD in the collection, which decodes
+     * and delivers them only as fast as each subscriber requests them
+     *
+     * @return The aforementioned Publisher
+     */
+    public Flow.Publisher<DVD> publishDVDs();
+
+    /**
+     * Runs any other query against the collection once it has loaded,
+     * e.g. dao.query(library -> library.findDVDs(query))
+     *
+     * @param <T>
+     * @param query A function that only reads the collection
+     * @return A future of the result of the query
+     */
+    public <T> CompletableFuture<T> query(Function<DVDLibraryDao, T> query);
+
+    /**
+     * Starts saving the DVDs in memory to an external source
+     *
+     * @return A future completed once the collection has been saved
+     */
+    public CompletableFuture<Void> saveDVDsToExternal();
+
+    /**
+     * Waits for any load or save in progress, then stops the thread that
+     * performs them
+     */
+    @Override
+    public void close();
+}
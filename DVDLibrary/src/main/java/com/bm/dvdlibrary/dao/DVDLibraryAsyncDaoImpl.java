@@ -0,0 +1,184 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Provide DAO services asynchronously over a thread-safe DAO
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An asynchronous DAO over a thread-safe DVDLibraryDao, such as
+ * DVDLibraryConcurrentDaoImpl.
+ *
+ * Loading and saving run one at a time on a dedicated I/O thread, so a
+ * slow disk never holds up the caller. Operations on the collection in
+ * memory are cheap, so once it has loaded they run on the calling thread
+ * and return completed futures; until then they are queued behind the
+ * load. Saving does not hold up later operations: they run alongside it,
+ * as the wrapped DAO allows
+ *
+ * @author agent
+ */
+public class DVDLibraryAsyncDaoImpl implements DVDLibraryAsyncDao {
+    private final DVDLibraryDao delegate;
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dvd-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Executor publishExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * Guards the tail below
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Completed, successfully or not, once the latest load and every
+     * operation queued behind it have run
+     */
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+    /**
+     * Creates a new instance of this class over the given DAO, which must
+     * be thread-safe
+     *
+     * @param delegate
+     */
+    public DVDLibraryAsyncDaoImpl(DVDLibraryDao delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Sets the executor on which publishers deliver DVDs to their
+     * subscribers, the common ForkJoinPool by default
+     *
+     * @param publishExecutor
+     */
+    public void setPublishExecutor(Executor publishExecutor) {
+        this.publishExecutor = publishExecutor;
+    }
+
+    @Override
+    public CompletableFuture<Void> loadDVDsFromExternal() {
+        synchronized (lock) {
+            CompletableFuture<Void> load = tail.thenRunAsync(() -> {
+                try {
+                    delegate.loadDVDsFromExternal();
+                } catch (DVDLibraryDaoException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, ioExecutor);
+            tail = load.handle((result, failure) -> null);
+            return load;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<DVD>> addDVD(DVD subject) {
+        return whenLoaded(() -> delegate.addDVD(subject));
+    }
+
+    @Override
+    public CompletableFuture<Optional<DVD>> removeDVD(String title) {
+        return whenLoaded(() -> delegate.removeDVD(title));
+    }
+
+    @Override
+    public CompletableFuture<Optional<DVD>> saveDVD(DVD modifiedDVD) {
+        return whenLoaded(() -> delegate.saveDVD(modifiedDVD));
+    }
+
+    @Override
+    public CompletableFuture<Optional<DVD>> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        return whenLoaded(() -> delegate.replaceDVD(expectedDVD, modifiedDVD));
+    }
+
+    @Override
+    public CompletableFuture<Optional<DVD>> getDVDByTitle(String title) {
+        return whenLoaded(() -> delegate.getDVDByTitle(title));
+    }
+
+    @Override
+    public CompletableFuture<List<DVD>> getAllDVDs() {
+        return whenLoaded(delegate::getAllDVDs);
+    }
+
+    /**
+     * Obtains a Publisher of every DVD in the collection, streamed from
+     * the wrapped DAO once it has loaded
+     *
+     * @return The aforementioned Publisher
+     */
+    @Override
+    public Flow.Publisher<DVD> publishDVDs() {
+        Flow.Publisher<DVD> publisher = new DVDStreamPublisher(
+            delegate::streamDVDs, publishExecutor
+        );
+        return subscriber -> whenLoaded(() -> null)
+            .thenRun(() -> publisher.subscribe(subscriber));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> query(Function<DVDLibraryDao, T> query) {
+        return whenLoaded(() -> query.apply(delegate));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveDVDsToExternal() {
+        synchronized (lock) {
+            return tail.thenRunAsync(() -> {
+                try {
+                    delegate.saveDVDsToExternal();
+                } catch (DVDLibraryDaoException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, ioExecutor);
+        }
+    }
+
+    @Override
+    public void close() {
+        ioExecutor.shutdown();
+        try {
+            ioExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the operation on the calling thread if the collection has
+     * loaded, or queues it behind the load otherwise
+     */
+    private <T> CompletableFuture<T> whenLoaded(Supplier<T> operation) {
+        synchronized (lock) {
+            if (!tail.isDone()) {
+                CompletableFuture<T> queued = tail.thenApply(ignored -> operation.get());
+                tail = queued.handle((result, failure) -> null);
+                return queued;
+            }
+        }
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
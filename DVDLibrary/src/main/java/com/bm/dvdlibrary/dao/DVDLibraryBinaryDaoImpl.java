@@ -0,0 +1,54 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Store the collection in the compact binary file format
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * A DAO that keeps the collection in memory, like DVDLibraryDaoImpl, but
+ * stores it in the versioned binary format described by DVDBinaryFormat
+ * rather than in the "::" delimited text file.
+ *
+ * DVDLibraryFormatConverter converts existing libraries between the two
+ *
+ * @author agent
+ */
+public class DVDLibraryBinaryDaoImpl extends DVDLibraryDaoImpl {
+    private static final String SRC_FILENAME = "dvds.bin";
+
+    public DVDLibraryBinaryDaoImpl() {
+        this(SRC_FILENAME);
+    }
+
+    /**
+     * Creates a new instance of this class whose collection is
+     * stored in the given binary file
+     *
+     * @param srcFilename
+     */
+    public DVDLibraryBinaryDaoImpl(String srcFilename) {
+        super(srcFilename);
+    }
+
+    @Override
+    protected void readFile(Path file, Consumer<DVD> sink) throws IOException {
+        new DVDBinaryFileReader().load(file, sink);
+    }
+
+    @Override
+    protected void writeFile(Path file, Collection<DVD> dvds, boolean atomic)
+        throws IOException {
+        // the string table goes last, so there is no useful in-place variant
+        DVDBinaryFileWriter.writeAtomically(file, dvds);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Provide synchronous DAO services over an asynchronous DAO
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Adapts a DVDLibraryAsyncDao to the synchronous DVDLibraryDao interface,
+ * by waiting for the outcome of every call. Queries the asynchronous
+ * interface lacks are passed through DVDLibraryAsyncDao.query(), so they
+ * keep whatever fast paths the DAO underneath has.
+ *
+ * Since the asynchronous DAO queues operations behind a load in progress,
+ * a caller may start loading through it directly and use this adapter at
+ * once; the first call that needs the collection waits for it
+ *
+ * @author agent
+ */
+public class DVDLibraryBlockingDao implements DVDLibraryDao {
+    private final DVDLibraryAsyncDao delegate;
+
+    /**
+     * Creates a new instance of this class which waits on the given DAO
+     *
+     * @param delegate
+     */
+    public DVDLibraryBlockingDao(DVDLibraryAsyncDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        awaitPersistence(delegate.loadDVDsFromExternal());
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        return await(delegate.addDVD(subject));
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        return await(delegate.removeDVD(title));
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        return await(delegate.saveDVD(modifiedDVD));
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        return await(delegate.replaceDVD(expectedDVD, modifiedDVD));
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        return await(delegate.getDVDByTitle(title));
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        return await(delegate.getAllDVDs());
+    }
+
+    @Override
+    public List<DVD> getDVDPage(DVD after, int pageSize, DVDSortKey sortKey) {
+        return await(delegate.query(dao -> dao.getDVDPage(after, pageSize, sortKey)));
+    }
+
+    @Override
+    public List<DVD> findDVDs(DVDQuery query) {
+        return await(delegate.query(dao -> dao.findDVDs(query)));
+    }
+
+    @Override
+    public long countDVDs(DVDQuery query) {
+        return await(delegate.query(dao -> dao.countDVDs(query)));
+    }
+
+    @Override
+    public OptionalDouble averageRating(DVDQuery query) {
+        return await(delegate.query(dao -> dao.averageRating(query)));
+    }
+
+    @Override
+    public List<DVD> searchTitles(String text, int limit) {
+        return await(delegate.query(dao -> dao.searchTitles(text, limit)));
+    }
+
+    @Override
+    public List<DVD> searchNotes(String text, int limit) {
+        return await(delegate.query(dao -> dao.searchNotes(text, limit)));
+    }
+
+    @Override
+    public DVDStatistics getStatistics() {
+        return await(delegate.query(DVDLibraryDao::getStatistics));
+    }
+
+    @Override
+    public void saveDVDsToExternal() throws DVDLibraryDaoException {
+        awaitPersistence(delegate.saveDVDsToExternal());
+    }
+
+    /**
+     * Waits for the outcome of an operation, rethrowing whatever it failed
+     * with
+     */
+    private static <T> T await(CompletableFuture<T> outcome) {
+        try {
+            return outcome.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Waits for a load or save to finish, rethrowing the DAO exception it
+     * failed with
+     */
+    private static void awaitPersistence(CompletableFuture<Void> outcome)
+        throws DVDLibraryDaoException {
+        try {
+            outcome.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof DVDLibraryDaoException) {
+                throw (DVDLibraryDaoException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Cache lookups in front of a slower DAO
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Wraps a DAO whose lookups are slow, such as one backed by a binary file
+ * or a database, keeping the most recently used DVDs in a bounded LRU
+ * cache. Titles that were looked up and not found are cached too, so
+ * repeated misses do not reach the wrapped DAO either.
+ *
+ * Mutations are written through to the wrapped DAO by default, dropping
+ * the title from the cache so the next lookup reads what the wrapped DAO
+ * ended up with. In write-behind mode they are applied to the cache at
+ * once and to the wrapped DAO in order on a background thread; until then
+ * they are held outside the cache, so they cannot be evicted. Any
+ * operation that needs the whole collection waits for them first. Since
+ * the background thread mutates the wrapped DAO while lookups read it,
+ * write-behind mode needs a thread-safe wrapped DAO, such as
+ * DVDLibraryConcurrentDaoImpl
+ *
+ * @author agent
+ */
+public class DVDLibraryCachingDao implements DVDLibraryDao {
+    /**
+     * How mutations reach the wrapped DAO
+     */
+    public enum WriteMode {
+        /**
+         * Each mutation is applied to the wrapped DAO before it returns
+         */
+        WRITE_THROUGH,
+
+        /**
+         * Each mutation is applied to the wrapped DAO later, on a
+         * background thread
+         */
+        WRITE_BEHIND
+    }
+
+    private static final int DEFAULT_MAX_PENDING_WRITES = 10_000;
+
+    private final DVDLibraryDao delegate;
+    private final int maxSize;
+    private WriteMode writeMode = WriteMode.WRITE_THROUGH;
+    private boolean negativeCaching = true;
+
+    /**
+     * Guards the cache, the pending writes and the version below
+     */
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Optional<DVD>> cache;
+    private final Map<String, PendingWrite> pendingWrites = new HashMap<>();
+
+    /**
+     * Incremented on every mutation, so a lookup can tell whether what it
+     * read from the wrapped DAO may already be out of date
+     */
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ExecutorService writer;
+    private final Semaphore writeCapacity = new Semaphore(DEFAULT_MAX_PENDING_WRITES);
+    private final AtomicReference<RuntimeException> writeFailure = new AtomicReference<>();
+
+    /**
+     * Creates a new instance of this class which caches up to the given
+     * number of titles looked up in the given DAO
+     *
+     * @param delegate
+     * @param maxSize
+     */
+    public DVDLibraryCachingDao(DVDLibraryDao delegate, int maxSize) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<DVD>> eldest) {
+                if (size() > DVDLibraryCachingDao.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Sets how mutations reach the wrapped DAO. Must be set before the
+     * collection is first mutated
+     *
+     * @param writeMode
+     */
+    public void setWriteMode(WriteMode writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    /**
+     * Sets whether titles that were not found are cached as such
+     *
+     * @param negativeCaching
+     */
+    public void setNegativeCaching(boolean negativeCaching) {
+        this.negativeCaching = negativeCaching;
+    }
+
+    /**
+     * Obtains the number of lookups answered from the cache, including
+     * those answered with the absence of a DVD
+     *
+     * @return The aforementioned number
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Obtains the number of lookups that had to ask the wrapped DAO
+     *
+     * @return The aforementioned number
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Obtains the number of titles evicted to keep the cache within bounds
+     *
+     * @return The aforementioned number
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Obtains the fraction of lookups answered from the cache
+     *
+     * @return The aforementioned fraction, or 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        flush();
+        synchronized (lock) {
+            cache.clear();
+            version++;
+        }
+        delegate.loadDVDsFromExternal();
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        return lookUp(title, true);
+    }
+
+    /**
+     * Looks up a title in the pending writes, the cache and then the
+     * wrapped DAO, counting it towards the hit ratio only if asked to
+     */
+    private Optional<DVD> lookUp(String title, boolean counted) {
+        long versionBefore;
+        synchronized (lock) {
+            PendingWrite pending = pendingWrites.get(title);
+            if (pending != null) {
+                if (counted) {
+                    hits.increment();
+                }
+                return pending.value;
+            }
+            Optional<DVD> cached = cache.get(title);
+            if (cached != null) {
+                if (counted) {
+                    hits.increment();
+                }
+                return cached;
+            }
+            versionBefore = version;
+        }
+
+        if (counted) {
+            misses.increment();
+        }
+        Optional<DVD> loaded = delegate.getDVDByTitle(title);
+        synchronized (lock) {
+            // a mutation in the meantime may have made what was read stale
+            if (version == versionBefore && (loaded.isPresent() || negativeCaching)) {
+                cache.put(title, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        if (writeMode == WriteMode.WRITE_THROUGH) {
+            Optional<DVD> added = delegate.addDVD(subject);
+            invalidate(subject.getTitle());
+            return added;
+        }
+        Optional<DVD> absent = writeBehindIf(
+            subject.getTitle(), Optional::isEmpty, Optional.of(subject),
+            () -> delegate.addDVD(subject)
+        );
+        return absent == null ? Optional.empty() : Optional.of(subject);
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        if (writeMode == WriteMode.WRITE_THROUGH) {
+            Optional<DVD> removed = delegate.removeDVD(title);
+            invalidate(title);
+            return removed;
+        }
+        Optional<DVD> removed = writeBehindIf(
+            title, Optional::isPresent, Optional.empty(), () -> delegate.removeDVD(title)
+        );
+        return removed == null ? Optional.empty() : removed;
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        String title = modifiedDVD.getTitle();
+        if (writeMode == WriteMode.WRITE_THROUGH) {
+            Optional<DVD> saved = delegate.saveDVD(modifiedDVD);
+            invalidate(title);
+            return saved;
+        }
+        Optional<DVD> original = writeBehindIf(
+            title, Optional::isPresent, Optional.of(modifiedDVD),
+            () -> delegate.saveDVD(modifiedDVD)
+        );
+        return original == null ? Optional.empty() : Optional.of(modifiedDVD);
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        String title = modifiedDVD.getTitle();
+        if (writeMode == WriteMode.WRITE_THROUGH) {
+            Optional<DVD> saved = delegate.replaceDVD(expectedDVD, modifiedDVD);
+            invalidate(title);
+            return saved;
+        }
+        Optional<DVD> original = writeBehindIf(
+            title, Optional.of(expectedDVD)::equals, Optional.of(modifiedDVD),
+            () -> delegate.saveDVD(modifiedDVD)
+        );
+        return original == null ? Optional.empty() : Optional.of(modifiedDVD);
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        flush();
+        return delegate.getAllDVDs();
+    }
+
+    @Override
+    public Stream<DVD> streamDVDs() {
+        flush();
+        return delegate.streamDVDs();
+    }
+
+    @Override
+    public List<DVD> getDVDPage(DVD after, int pageSize, DVDSortKey sortKey) {
+        flush();
+        return delegate.getDVDPage(after, pageSize, sortKey);
+    }
+
+    @Override
+    public List<DVD> findDVDs(DVDQuery query) {
+        flush();
+        return delegate.findDVDs(query);
+    }
+
+    @Override
+    public long countDVDs(DVDQuery query) {
+        flush();
+        return delegate.countDVDs(query);
+    }
+
+    @Override
+    public OptionalDouble averageRating(DVDQuery query) {
+        flush();
+        return delegate.averageRating(query);
+    }
+
+    @Override
+    public List<DVD> searchTitles(String text, int limit) {
+        flush();
+        return delegate.searchTitles(text, limit);
+    }
+
+    @Override
+    public List<DVD> searchNotes(String text, int limit) {
+        flush();
+        return delegate.searchNotes(text, limit);
+    }
+
+    @Override
+    public DVDStatistics getStatistics() {
+        flush();
+        return delegate.getStatistics();
+    }
+
+    @Override
+    public void saveDVDsToExternal() throws DVDLibraryDaoException {
+        flush();
+        delegate.saveDVDsToExternal();
+    }
+
+    /**
+     * Waits until every mutation made so far in write-behind mode has been
+     * applied to the wrapped DAO. A failure to apply one is reported once,
+     * after which mutations are accepted again
+     *
+     * @throws IllegalStateException If one of them could not be applied
+     */
+    public void flush() {
+        Future<?> drained;
+        synchronized (lock) {
+            if (writer == null) {
+                reportWriteFailure();
+                return;
+            }
+            drained = writer.submit(() -> { });
+        }
+        try {
+            drained.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            // the no-op itself cannot fail
+        }
+        reportWriteFailure();
+    }
+
+    /**
+     * Applies any pending mutations and stops the write-behind thread
+     */
+    public void close() {
+        flush();
+        synchronized (lock) {
+            if (writer != null) {
+                writer.shutdown();
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * Drops the cached state of a title that was just mutated through to
+     * the wrapped DAO. Concurrent mutations may reach the wrapped DAO in
+     * either order, so only the wrapped DAO knows which one won
+     */
+    private void invalidate(String title) {
+        synchronized (lock) {
+            version++;
+            cache.remove(title);
+        }
+    }
+
+    /**
+     * Queues a mutation of the title for the wrapped DAO if its current
+     * state meets the condition. That state is looked up without holding
+     * the lock, since a miss reaches the wrapped DAO, and looked up again if
+     * another mutation was made meanwhile.
+     *
+     * Once too many writes are pending, this waits for the background
+     * thread to catch up, without holding the lock the thread needs
+     *
+     * @return The state the mutation was decided on, or null if the
+     * condition was not met
+     * @throws IllegalStateException If interrupted while waiting
+     */
+    private Optional<DVD> writeBehindIf(String title, Predicate<Optional<DVD>> condition,
+        Optional<DVD> value, Runnable apply) {
+        while (true) {
+            try {
+                writeCapacity.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                    "Interrupted while waiting for cached writes to be applied", ex
+                );
+            }
+            boolean queued = false;
+            try {
+                long versionBefore;
+                synchronized (lock) {
+                    versionBefore = version;
+                }
+                Optional<DVD> current = lookUp(title, false);
+                synchronized (lock) {
+                    if (version != versionBefore) {
+                        continue;
+                    }
+                    if (!condition.test(current)) {
+                        return null;
+                    }
+                    writeBehind(title, value, apply);
+                    queued = true;
+                    return current;
+                }
+            } finally {
+                // once queued, the permit is given back by the writer
+                if (!queued) {
+                    writeCapacity.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a mutation in the cache and queues it for the wrapped DAO.
+     * Must be called while holding the lock and a permit of writeCapacity
+     */
+    private void writeBehind(String title, Optional<DVD> value, Runnable apply) {
+        checkWriteFailure();
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dvd-cache-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        version++;
+        PendingWrite write = new PendingWrite(value);
+        pendingWrites.put(title, write);
+        cache.remove(title);
+        writer.execute(() -> {
+            boolean applied = false;
+            try {
+                apply.run();
+                applied = true;
+            } catch (RuntimeException ex) {
+                writeFailure.compareAndSet(null, ex);
+            } finally {
+                synchronized (lock) {
+                    // later writes to the same title are still pending
+                    if (pendingWrites.get(title) == write) {
+                        pendingWrites.remove(title);
+                        if (applied) {
+                            cache.put(title, value);
+                        } else {
+                            cache.remove(title);
+                        }
+                    }
+                }
+                writeCapacity.release();
+            }
+        });
+    }
+
+    private void checkWriteFailure() {
+        RuntimeException failure = writeFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("A cached write could not be applied", failure);
+        }
+    }
+
+    private void reportWriteFailure() {
+        RuntimeException failure = writeFailure.getAndSet(null);
+        if (failure != null) {
+            throw new IllegalStateException("A cached write could not be applied", failure);
+        }
+    }
+
+    /**
+     * A mutation not yet applied to the wrapped DAO, compared by identity
+     * so a later mutation of the same title is never mistaken for it
+     */
+    private static class PendingWrite {
+        private final Optional<DVD> value;
+
+        private PendingWrite(Optional<DVD> value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Share one collection safely between concurrent sessions
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe version of DVDLibraryDaoImpl, which can be shared by
+ * concurrent sessions.
+ *
+ * The collection is held in a ConcurrentHashMap, so lookups never lock and
+ * writes only contend on the same bin. Additions and edits are single
+ * atomic putIfAbsent and replace calls.
+ *
+ * Since DVDs are immutable, callers can never modify the collection behind
+ * its back, and never see a DVD that is halfway through being edited
+ *
+ * @author agent
+ */
+public class DVDLibraryConcurrentDaoImpl extends DVDLibraryDaoImpl {
+
+    public DVDLibraryConcurrentDaoImpl() {
+        this("dvds.txt");
+    }
+
+    /**
+     * Creates a new instance of this class whose collection is
+     * stored in the given file
+     *
+     * @param srcFilename
+     */
+    public DVDLibraryConcurrentDaoImpl(String srcFilename) {
+        super(srcFilename, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public synchronized void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        super.loadDVDsFromExternal();
+    }
+
+    @Override
+    public synchronized void saveDVDsToExternal() throws DVDLibraryDaoException {
+        super.saveDVDsToExternal();
+    }
+}
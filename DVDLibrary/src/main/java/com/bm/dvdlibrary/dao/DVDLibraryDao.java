@@ -9,8 +9,15 @@
 package com.bm.dvdlibrary.dao;
 
 import com.bm.dvdlibrary.dto.DVD;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
 
 /**
  * Provides DAO services, handling the retrieval, storage,
@@ -71,6 +78,34 @@ public interface DVDLibraryDao {
      */
     public Optional<DVD> saveDVD(DVD modifiedDVD);
     
+    /**
+     * Modifies a DVD in the collection as saveDVD() does, but only if it
+     * is still the expected DVD, i.e. the one the modified DVD was made
+     * from. This lets concurrent sessions edit the same collection
+     * optimistically: an edit made to a DVD that has changed since it was
+     * read is refused rather than silently undoing the other change.
+     * 
+     * If the DVD in the collection with that title is not equal to the
+     * expected DVD, or there is none, no modifications to the collection
+     * will be made, and an empty instance will be returned. Otherwise, an
+     * instance containing the modified DVD will be returned.
+     * 
+     * This default implementation checks and then saves, which is only
+     * atomic if nothing else modifies the collection meanwhile; thread-safe
+     * implementations make it atomic
+     * 
+     * @param expectedDVD The DVD as it was read, with the same title as
+     * the modified DVD
+     * @param modifiedDVD
+     * @return The aforementioned instance
+     */
+    public default Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        if (!getDVDByTitle(modifiedDVD.getTitle()).equals(Optional.of(expectedDVD))) {
+            return Optional.empty();
+        }
+        return saveDVD(modifiedDVD);
+    }
+    
     /**
      * Attempts to find a DVD in the collection with this title
      * 
@@ -90,6 +125,103 @@ public interface DVDLibraryDao {
      */
     public List<DVD> getAllDVDs();
     
+    /**
+     * Obtains a Stream of all the DVDs in this collection, in no particular
+     * order, for going through them without copying them all at once.
+     * 
+     * This default implementation streams a copy made by getAllDVDs();
+     * implementations should stream straight from their own storage
+     * 
+     * @return The aforementioned Stream
+     */
+    public default Stream<DVD> streamDVDs() {
+        return getAllDVDs().stream();
+    }
+    
+    /**
+     * Obtains the page of at most the given number of DVDs that come right
+     * after the given DVD in the given order. Passing the last DVD of one
+     * page obtains the next page, so pages are never skipped or repeated
+     * even if the collection changes in between.
+     * 
+     * This default implementation goes through every DVD in the collection,
+     * keeping only the best page-sized set of them; implementations with a
+     * sorted index should answer from that instead
+     * 
+     * @param after The last DVD of the previous page, or null for the first
+     * page
+     * @param pageSize
+     * @param sortKey
+     * @return A List of the aforementioned DVDs, in the given order
+     */
+    public default List<DVD> getDVDPage(DVD after, int pageSize, DVDSortKey sortKey) {
+        Comparator<DVD> order = sortKey.getOrder();
+        PriorityQueue<DVD> page = new PriorityQueue<>(order.reversed());
+        try (Stream<DVD> dvds = streamDVDs()) {
+            Iterator<DVD> iterator = dvds.iterator();
+            while (iterator.hasNext()) {
+                DVD dvd = iterator.next();
+                if (after != null && order.compare(dvd, after) <= 0) {
+                    continue;
+                }
+                page.add(dvd);
+                if (page.size() > pageSize) {
+                    page.poll();
+                }
+            }
+        }
+        List<DVD> sorted = new ArrayList<>(page);
+        sorted.sort(order);
+        return sorted;
+    }
+    
+    /**
+     * Finds every DVD in the collection that meets all the criteria
+     * of the query.
+     * 
+     * This default implementation checks every DVD in the collection;
+     * implementations with indexes should answer from those instead
+     * 
+     * @param query
+     * @return A List of the matching DVDs, in no particular order
+     */
+    public default List<DVD> findDVDs(DVDQuery query) {
+        List<DVD> matches = new ArrayList<>();
+        for (DVD dvd : getAllDVDs()) {
+            if (query.matches(dvd)) {
+                matches.add(dvd);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Counts the DVDs in the collection that meet all the criteria of the
+     * query.
+     * 
+     * This default implementation counts the DVDs found by findDVDs()
+     * 
+     * @param query
+     * @return The aforementioned count
+     */
+    public default long countDVDs(DVDQuery query) {
+        return findDVDs(query).size();
+    }
+    
+    /**
+     * Averages the user ratings of the DVDs in the collection that meet all
+     * the criteria of the query.
+     * 
+     * This default implementation averages the DVDs found by findDVDs()
+     * 
+     * @param query
+     * @return The aforementioned average, or an empty instance if no DVD
+     * meets them
+     */
+    public default OptionalDouble averageRating(DVDQuery query) {
+        return findDVDs(query).stream().mapToInt(DVD::getRating).average();
+    }
+    
     /**
      * Saves DVDs in this collection to an external source, such as a file or a
      * database. If this cannot be done, the below exception may be thrown.
@@ -97,4 +229,83 @@ public interface DVDLibraryDao {
      * @throws DVDLibraryDaoException 
      */
     public void saveDVDsToExternal() throws DVDLibraryDaoException;
+    
+    /**
+     * Finds up to the given number of DVDs whose titles resemble the search
+     * text, best match first, for when the exact title is not known.
+     * 
+     * This default implementation checks every DVD in the collection for a
+     * title containing the text, ignoring case; implementations with a
+     * title index should answer from that instead, tolerating typos
+     * 
+     * @param text
+     * @param limit
+     * @return A List of the aforementioned DVDs
+     */
+    public default List<DVD> searchTitles(String text, int limit) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        List<DVD> matches = new ArrayList<>();
+        for (DVD dvd : getAllDVDs()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (dvd.getTitle().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(dvd);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Finds up to the given number of DVDs whose note, title, director or
+     * studio contain the words of the search text, best match first.
+     * 
+     * This default implementation checks every DVD in the collection for
+     * any of those containing the whole text, ignoring case;
+     * implementations with a full-text index should answer from that
+     * instead, ranking DVDs by how well they match each word
+     * 
+     * @param text
+     * @param limit
+     * @return A List of the aforementioned DVDs
+     */
+    public default List<DVD> searchNotes(String text, int limit) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        List<DVD> matches = new ArrayList<>();
+        for (DVD dvd : getAllDVDs()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (dvd.getNote().toLowerCase(Locale.ROOT).contains(needle)
+                || dvd.getTitle().toLowerCase(Locale.ROOT).contains(needle)
+                || dvd.getDirectorName().toLowerCase(Locale.ROOT).contains(needle)
+                || dvd.getStudio().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(dvd);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Computes aggregates over every DVD in the collection: the average
+     * rating per director, the count per studio per decade, and the
+     * distribution of ratings per MPAA rating.
+     * 
+     * This default implementation goes through the collection in a single
+     * parallel pass; implementations that keep running totals should
+     * answer from those instead
+     * 
+     * @return The aforementioned aggregates
+     */
+    public default DVDStatistics getStatistics() {
+        try (Stream<DVD> dvds = streamDVDs()) {
+            return dvds.parallel()
+                .collect(
+                    DVDStatisticsAccumulator::new,
+                    DVDStatisticsAccumulator::add,
+                    DVDStatisticsAccumulator::combine
+                )
+                .snapshot();
+        }
+    }
 }
@@ -9,91 +9,108 @@
 package com.bm.dvdlibrary.dao;
 
 import com.bm.dvdlibrary.dto.DVD;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.LocalDate;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 public class DVDLibraryDaoImpl implements DVDLibraryDao {
     private Map<String, DVD> titleDVDMap;
     private static final String SRC_FILENAME = "dvds.txt";
-    private static final String DELIMITER = "::";
+    
+    private final Path srcFile;
+    private int loadParallelism = Runtime.getRuntime().availableProcessors();
+    private boolean atomicSave = true;
+    private boolean skipUnchangedSave = false;
+    
+    /**
+     * Whether the collection may differ from the file it was last
+     * loaded from or saved to
+     */
+    private volatile boolean dirty = true;
     
     public DVDLibraryDaoImpl() {
-        this.titleDVDMap = new HashMap<>();
+        this(SRC_FILENAME);
+    }
+    
+    /**
+     * Creates a new instance of this class whose collection is
+     * stored in the given file
+     * 
+     * @param srcFilename 
+     */
+    public DVDLibraryDaoImpl(String srcFilename) {
+        this(srcFilename, new HashMap<>());
+    }
+    
+    /**
+     * Creates a new instance of this class whose collection is stored in
+     * the given file and held in the given map while in memory
+     * 
+     * @param srcFilename
+     * @param titleDVDMap An empty map
+     */
+    protected DVDLibraryDaoImpl(String srcFilename, Map<String, DVD> titleDVDMap) {
+        this.titleDVDMap = titleDVDMap;
+        this.srcFile = Paths.get(srcFilename);
+    }
+    
+    /**
+     * Sets the number of threads used to parse the file when loading.
+     * A level of 1 always loads sequentially; the loaded collection is the
+     * same either way
+     * 
+     * @param loadParallelism 
+     */
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = loadParallelism;
+    }
+    
+    /**
+     * Sets whether saving writes a temporary file, forces it to disk and
+     * renames it over the old one, rather than overwriting the file in place.
+     * This is on by default, so a crash mid-save cannot lose the library
+     * 
+     * @param atomicSave 
+     */
+    public void setAtomicSave(boolean atomicSave) {
+        this.atomicSave = atomicSave;
+    }
+    
+    /**
+     * Sets whether saving is skipped when the collection has not been
+     * modified since it was last loaded or saved
+     * 
+     * @param skipUnchangedSave 
+     */
+    public void setSkipUnchangedSave(boolean skipUnchangedSave) {
+        this.skipUnchangedSave = skipUnchangedSave;
     }
     
     @Override
     public void loadDVDsFromExternal() throws DVDLibraryDaoException {
-        Scanner fileReader;
-        
         try {
-            fileReader = new Scanner(new BufferedReader(
-                new FileReader(SRC_FILENAME)
-            ));
-        } catch (FileNotFoundException ex) {
+            readFile(srcFile, dvd -> titleDVDMap.put(dvd.getTitle(), dvd));
+        } catch (IOException ex) {
             throw new DVDLibraryDaoException("Unable to load dvds from file", ex);
         }
-        while (fileReader.hasNextLine()) {
-            String[] record = fileReader.nextLine().split(DELIMITER);
-            
-            String title = record[0];
-            DVD dvdToAdd = new DVD(title);
-            
-            LocalDate releaseDate = null;
-            int year = Integer.parseInt(record[1]);
-            int month = Integer.parseInt(record[2]);
-            int day = Integer.parseInt(record[3]);            
-            try {
-                releaseDate = LocalDate.of(year, month, day);
-            } catch (Exception ex) {
-                throw new DVDLibraryDaoException(
-                    "A record appears to have an invalid date", 
-                    ex
-                );
-            }
-            dvdToAdd.setReleaseDate(releaseDate);
-            
-            String mpaaRating = record[4];
-            dvdToAdd.setMpaaRating(mpaaRating);
-            
-            String directorName = record[5];
-            dvdToAdd.setDirectorName(directorName);
-            
-            String studio = record[6];
-            dvdToAdd.setStudio(studio);
-            
-            int rating = Integer.parseInt(record[7]);
-            dvdToAdd.setRating(rating);
-            
-            String note = ""; // notes in record may be left empty
-            if (record.length == 9) {
-                note = record[8];
-            }
-            dvdToAdd.setNote(note);
-
-            titleDVDMap.put(title, dvdToAdd);
-        }
-        
-        fileReader.close();
+        dirty = false;
     }
 
     @Override
     public Optional<DVD> addDVD(DVD subject) {
-        if (titleDVDMap.containsKey(subject.getTitle())) {
+        if (titleDVDMap.putIfAbsent(subject.getTitle(), subject) != null) {
             return Optional.empty();
         }
-        titleDVDMap.put(subject.getTitle(), subject);
+        dirty = true;
         return Optional.of(subject);
     }
     
@@ -103,15 +120,25 @@ public class DVDLibraryDaoImpl implements DVDLibraryDao {
         if (receivedDVD == null) {
             return Optional.empty();
         }
+        dirty = true;
         return Optional.of(receivedDVD);
     }
 
     @Override
     public Optional<DVD> saveDVD(DVD modifiedDVD) {
-        if (!titleDVDMap.containsKey(modifiedDVD.getTitle())) {
+        if (titleDVDMap.replace(modifiedDVD.getTitle(), modifiedDVD) == null) {
             return Optional.empty();
         }
-        titleDVDMap.put(modifiedDVD.getTitle(), modifiedDVD);
+        dirty = true;
+        return Optional.of(modifiedDVD);
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        if (!titleDVDMap.replace(modifiedDVD.getTitle(), expectedDVD, modifiedDVD)) {
+            return Optional.empty();
+        }
+        dirty = true;
         return Optional.of(modifiedDVD);
     }
 
@@ -126,33 +153,65 @@ public class DVDLibraryDaoImpl implements DVDLibraryDao {
 
     @Override
     public void saveDVDsToExternal() throws DVDLibraryDaoException {
-        PrintWriter writer;
+        if (skipUnchangedSave && !dirty) {
+            return;
+        }
+        
+        // cleared first, so mutations made while writing are not forgotten
+        dirty = false;
         try {
-            writer = new PrintWriter(new FileWriter(SRC_FILENAME));
+            writeFile(srcFile, titleDVDMap.values(), atomicSave);
         } catch (IOException ex) {
+            dirty = true;
             throw new DVDLibraryDaoException("Unable to save dvds to file", ex);
         }
-        
-        for (DVD dvd : titleDVDMap.values()) {
-            writer.format(
-                "%s::%d::%d::%d::%s::%s::%s::%d::%s%n",
-                dvd.getTitle(),
-                dvd.getReleaseDate().getYear(),
-                dvd.getReleaseDate().getMonthValue(),
-                dvd.getReleaseDate().getDayOfMonth(),
-                dvd.getMpaaRating(),
-                dvd.getDirectorName(),
-                dvd.getStudio(),
-                dvd.getRating(),
-                dvd.getNote()
-            );
-        }
-        
-        writer.close();
     }
 
     @Override
     public List<DVD> getAllDVDs() {
         return new ArrayList<>(titleDVDMap.values());
     }
-}
\ No newline at end of file
+
+    @Override
+    public Stream<DVD> streamDVDs() {
+        return titleDVDMap.values().stream();
+    }
+    
+    /**
+     * Reads every DVD stored in the file into the sink, in file order.
+     * 
+     * Records that cannot be understood are skipped, and reported through
+     * the exception once every other record has been read
+     * 
+     * @param file
+     * @param sink
+     * @throws IOException If the file cannot be read at all
+     * @throws DVDLibraryDaoException If some records had to be skipped
+     */
+    protected void readFile(Path file, Consumer<DVD> sink)
+        throws IOException, DVDLibraryDaoException {
+        DVDTextFileLoader loader = new DVDTextFileLoader();
+        loader.loadParallel(file, loadParallelism, sink);
+        if (loader.getErrorCount() > 0) {
+            throw new DVDLibraryDaoException(loader.describeErrors());
+        }
+    }
+    
+    /**
+     * Stores the DVDs in the file, replacing its contents
+     * 
+     * @param file
+     * @param dvds
+     * @param atomic Whether the file must be replaced atomically
+     * @throws IOException If the DVDs cannot be written
+     */
+    protected void writeFile(Path file, Collection<DVD> dvds, boolean atomic)
+        throws IOException {
+        DVDTextFileWriter writer = new DVDTextFileWriter();
+        if (atomic) {
+            writer.writeAtomically(file, dvds);
+        } else {
+            writer.write(file, dvds);
+        }
+    }
+}
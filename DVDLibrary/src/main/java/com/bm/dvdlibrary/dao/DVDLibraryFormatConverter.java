@@ -0,0 +1,108 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Convert DVD libraries between the text and binary formats
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts DVD libraries between the "::" delimited text format and the
+ * binary format, streaming records from one file to the other without
+ * holding the whole library in memory
+ *
+ * @author agent
+ */
+public final class DVDLibraryFormatConverter {
+
+    private DVDLibraryFormatConverter() {
+    }
+
+    /**
+     * Writes the DVDs of a text library into a binary library
+     *
+     * @param textFile
+     * @param binaryFile
+     * @return The loader that read the text library, which describes any
+     * malformed records it skipped
+     * @throws IOException If either file cannot be accessed
+     */
+    public static DVDTextFileLoader textToBinary(Path textFile, Path binaryFile)
+        throws IOException {
+        DVDTextFileLoader loader = new DVDTextFileLoader();
+        AtomicFiles.write(binaryFile, channel -> {
+            DVDBinaryFileWriter writer = new DVDBinaryFileWriter(channel);
+            try {
+                loader.load(textFile, dvd -> {
+                    try {
+                        writer.append(dvd);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            writer.finish();
+        });
+        return loader;
+    }
+
+    /**
+     * Writes the DVDs of a binary library into a text library
+     *
+     * @param binaryFile
+     * @param textFile
+     * @throws IOException If either file cannot be accessed
+     */
+    public static void binaryToText(Path binaryFile, Path textFile)
+        throws IOException {
+        AtomicFiles.write(textFile, channel -> {
+            DVDTextFileWriter writer = new DVDTextFileWriter();
+            try {
+                new DVDBinaryFileReader().load(binaryFile, dvd -> {
+                    try {
+                        writer.append(channel, dvd);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            writer.flush(channel);
+        });
+    }
+
+    /**
+     * Converts a library from the command line, e.g.
+     * DVDLibraryFormatConverter dvds.txt dvds.bin
+     * The direction is determined by the extension of the source file
+     *
+     * @param args The source file followed by the target file
+     * @throws IOException If either file cannot be accessed
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DVDLibraryFormatConverter <source> <target>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        if (args[0].endsWith(".bin")) {
+            binaryToText(source, target);
+        } else {
+            DVDTextFileLoader loader = textToBinary(source, target);
+            if (loader.getErrorCount() > 0) {
+                System.err.println(loader.describeErrors());
+            }
+        }
+    }
+}
@@ -0,0 +1,438 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Maintain secondary indexes over another DAO's collection
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Wraps another DAO, keeping a set of DVDIndexes up to date as DVDs are
+ * loaded, added, edited and removed, and answering searches from them.
+ *
+ * Every instance maintains a DVDAttributeIndex, which findDVDs() and
+ * getDVDPage() use, a DVDTitleIndex, which searchTitles() uses, and a
+ * DVDStatisticsAccumulator, whose running totals getStatistics() uses.
+ * Instances given an index file also maintain a DVDTextIndex persisted
+ * there, which searchNotes() uses. A DVDColumnStore may be kept as well,
+ * for queries that match too much of the collection to be worth answering
+ * from the attribute index; further indexes may be registered with
+ * addIndex()
+ *
+ * @author agent
+ */
+public class DVDLibraryIndexedDao implements DVDLibraryDao {
+    /**
+     * Queries with more candidates than the size of the collection divided
+     * by this are answered by scanning the column store instead
+     */
+    private static final int COLUMN_SCAN_FRACTION = 8;
+
+    private final DVDLibraryDao delegate;
+    private final DVDAttributeIndex attributeIndex = new DVDAttributeIndex();
+    private final DVDTitleIndex titleIndex = new DVDTitleIndex();
+    private final DVDStatisticsAccumulator statistics = new DVDStatisticsAccumulator();
+    private final DVDTextIndex textIndex;
+    private volatile DVDColumnStore columnStore;
+    private final List<DVDIndex> indexes = new ArrayList<>();
+
+    /**
+     * Mutations hold the write lock while they update the wrapped DAO and
+     * the indexes, so searches never see the two disagree
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates a new instance of this class which indexes the collection
+     * held by the given DAO
+     *
+     * @param delegate
+     */
+    public DVDLibraryIndexedDao(DVDLibraryDao delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * Creates a new instance of this class which indexes the collection
+     * held by the given DAO, including the full text of each DVD, whose
+     * index is saved alongside the collection in the given file
+     *
+     * @param delegate
+     * @param textIndexFile The file for the full-text index, or null if
+     * there should be no such index
+     */
+    public DVDLibraryIndexedDao(DVDLibraryDao delegate, Path textIndexFile) {
+        this.delegate = delegate;
+        indexes.add(attributeIndex);
+        indexes.add(titleIndex);
+        indexes.add(statistics);
+        if (textIndexFile == null) {
+            textIndex = null;
+        } else {
+            textIndex = new DVDTextIndex(textIndexFile);
+            indexes.add(textIndex);
+        }
+    }
+
+    /**
+     * Sets whether a columnar copy of the collection is kept, from which
+     * queries matching more than an eighth of the collection, counts and
+     * averages are answered by scanning
+     *
+     * @param columnarScans
+     */
+    public void setColumnarScans(boolean columnarScans) {
+        if (columnarScans && columnStore == null) {
+            DVDColumnStore store = new DVDColumnStore();
+            addIndex(store);
+            columnStore = store;
+        } else if (!columnarScans && columnStore != null) {
+            lock.writeLock().lock();
+            try {
+                indexes.remove(columnStore);
+                columnStore = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Registers a further index to keep up to date, which is filled with
+     * the DVDs already in the collection
+     *
+     * @param index
+     */
+    public void addIndex(DVDIndex index) {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            for (DVD dvd : delegate.getAllDVDs()) {
+                index.add(dvd);
+            }
+            indexes.add(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        lock.writeLock().lock();
+        try {
+            delegate.loadDVDsFromExternal();
+        } finally {
+            // whatever did get loaded must still be indexed
+            rebuildIndexes();
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        lock.writeLock().lock();
+        try {
+            Optional<DVD> added = delegate.addDVD(subject);
+            added.ifPresent(this::addToIndexes);
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        lock.writeLock().lock();
+        try {
+            Optional<DVD> removed = delegate.removeDVD(title);
+            removed.ifPresent(this::removeFromIndexes);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        lock.writeLock().lock();
+        try {
+            Optional<DVD> original = delegate.getDVDByTitle(modifiedDVD.getTitle());
+            Optional<DVD> saved = delegate.saveDVD(modifiedDVD);
+            if (saved.isPresent()) {
+                original.ifPresent(this::removeFromIndexes);
+                addToIndexes(saved.get());
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        lock.writeLock().lock();
+        try {
+            Optional<DVD> saved = delegate.replaceDVD(expectedDVD, modifiedDVD);
+            if (saved.isPresent()) {
+                removeFromIndexes(expectedDVD);
+                addToIndexes(saved.get());
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        return delegate.getDVDByTitle(title);
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        return delegate.getAllDVDs();
+    }
+
+    @Override
+    public Stream<DVD> streamDVDs() {
+        return delegate.streamDVDs();
+    }
+
+    /**
+     * Reads the page straight off the attribute index, so only the DVDs on
+     * it are looked at
+     *
+     * @param after
+     * @param pageSize
+     * @param sortKey
+     * @return A List of the DVDs on the page, in the given order
+     */
+    @Override
+    public List<DVD> getDVDPage(DVD after, int pageSize, DVDSortKey sortKey) {
+        lock.readLock().lock();
+        try {
+            List<DVD> page = new ArrayList<>();
+            for (String title : attributeIndex.pageTitles(after, pageSize, sortKey)) {
+                delegate.getDVDByTitle(title).ifPresent(page::add);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers the query from the attribute index, so only the DVDs matching
+     * its most selective criterion are looked at, unless there are so many
+     * of those that scanning the column store is cheaper
+     *
+     * @param query
+     * @return A List of the matching DVDs, in no particular order
+     */
+    @Override
+    public List<DVD> findDVDs(DVDQuery query) {
+        lock.readLock().lock();
+        try {
+            Collection<String> candidates = attributeIndex.candidateTitles(query);
+            DVDColumnStore store = columnStore;
+            if (shouldScan(store, candidates)) {
+                return store.filter(query);
+            }
+            if (candidates == null) {
+                return delegate.findDVDs(query);
+            }
+            List<DVD> matches = new ArrayList<>();
+            for (String title : candidates) {
+                delegate.getDVDByTitle(title)
+                    .filter(query::matches)
+                    .ifPresent(matches::add);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers from the column store, if one is kept and the query matches
+     * too much of the collection to be answered from the attribute index
+     *
+     * @param query
+     * @return The number of matching DVDs
+     */
+    @Override
+    public long countDVDs(DVDQuery query) {
+        lock.readLock().lock();
+        try {
+            DVDColumnStore store = columnStore;
+            if (shouldScan(store, attributeIndex.candidateTitles(query))) {
+                return store.count(query);
+            }
+            return findDVDs(query).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers from the column store, if one is kept and the query matches
+     * too much of the collection to be answered from the attribute index
+     *
+     * @param query
+     * @return The average rating of the matching DVDs, if there are any
+     */
+    @Override
+    public OptionalDouble averageRating(DVDQuery query) {
+        lock.readLock().lock();
+        try {
+            DVDColumnStore store = columnStore;
+            if (shouldScan(store, attributeIndex.candidateTitles(query))) {
+                return store.averageRating(query);
+            }
+            return findDVDs(query).stream().mapToInt(DVD::getRating).average();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers the search from the title index, so prefixes of any word in
+     * a title, and titles with typos in them, are found too
+     *
+     * @param text
+     * @param limit
+     * @return A List of the aforementioned DVDs, best match first
+     */
+    @Override
+    public List<DVD> searchTitles(String text, int limit) {
+        lock.readLock().lock();
+        try {
+            List<DVD> matches = new ArrayList<>();
+            for (String title : titleIndex.search(text, limit)) {
+                delegate.getDVDByTitle(title).ifPresent(matches::add);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers the search from the full-text index, if there is one, ranking
+     * DVDs by how often they contain each word and how rare that word is
+     *
+     * @param text
+     * @param limit
+     * @return A List of the aforementioned DVDs, best match first
+     */
+    @Override
+    public List<DVD> searchNotes(String text, int limit) {
+        if (textIndex == null) {
+            return delegate.searchNotes(text, limit);
+        }
+        lock.readLock().lock();
+        try {
+            List<DVD> matches = new ArrayList<>();
+            for (String title : textIndex.search(text, limit)) {
+                delegate.getDVDByTitle(title).ifPresent(matches::add);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers from the running totals kept as the collection changes, so
+     * no DVDs are looked at
+     *
+     * @return The aforementioned aggregates
+     */
+    @Override
+    public DVDStatistics getStatistics() {
+        lock.readLock().lock();
+        try {
+            return statistics.snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the collection through the wrapped DAO, then persists every
+     * index that supports it.
+     *
+     * Searches and mutations carry on while the wrapped DAO saves, so if
+     * saves can happen while the collection is in use, the wrapped DAO must
+     * be safe to save while it is being mutated, as
+     * DVDLibrarySnapshotDaoImpl is
+     *
+     * @throws DVDLibraryDaoException
+     */
+    @Override
+    public void saveDVDsToExternal() throws DVDLibraryDaoException {
+        delegate.saveDVDsToExternal();
+        // persisting an index may compact it, so searches must wait
+        lock.writeLock().lock();
+        try {
+            for (DVDIndex index : indexes) {
+                index.persist();
+            }
+        } catch (IOException ex) {
+            throw new DVDLibraryDaoException("Unable to save an index", ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether scanning the column store, if there is one, is cheaper
+     * than looking up every candidate found by the attribute index
+     */
+    private static boolean shouldScan(DVDColumnStore store, Collection<String> candidates) {
+        return store != null && (candidates == null
+            || candidates.size() > store.size() / COLUMN_SCAN_FRACTION);
+    }
+
+    private void rebuildIndexes() {
+        List<DVD> dvds = delegate.getAllDVDs();
+        List<DVDIndex> rebuilding = new ArrayList<>();
+        for (DVDIndex index : indexes) {
+            if (!index.restore(dvds)) {
+                index.clear();
+                rebuilding.add(index);
+            }
+        }
+        for (DVD dvd : dvds) {
+            for (DVDIndex index : rebuilding) {
+                index.add(dvd);
+            }
+        }
+    }
+
+    private void addToIndexes(DVD dvd) {
+        for (DVDIndex index : indexes) {
+            index.add(dvd);
+        }
+    }
+
+    private void removeFromIndexes(DVD dvd) {
+        for (DVDIndex index : indexes) {
+            index.remove(dvd);
+        }
+    }
+}
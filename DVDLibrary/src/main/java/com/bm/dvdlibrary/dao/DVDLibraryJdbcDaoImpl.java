@@ -0,0 +1,524 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Provide DAO services over a relational database
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A DAO whose collection lives in a table of a relational database reached
+ * through JDBC, e.g. an embedded H2 database with "jdbc:h2:./dvds".
+ *
+ * Only changes made since the last save are held in memory, as an overlay
+ * of added and edited DVDs and a set of titles whose rows are stale, so
+ * the collection may be far larger than the heap. Lookups go to the table
+ * by its primary key, listings stream the table with a fetch size, and
+ * queries and pages are answered by SQL over indexed columns whenever
+ * there are no unsaved changes to merge in. Saving applies the changes as
+ * JDBC batches in one transaction
+ *
+ * @author agent
+ */
+public class DVDLibraryJdbcDaoImpl implements DVDLibraryDao {
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 1000;
+    private static final String COLUMNS =
+        "title, release_epoch_day, mpaa_rating, director_name, studio, rating, note";
+    /**
+     * Text columns take the longest strings the database allows, since the
+     * file DAOs put no limit on them either
+     */
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS dvds ("
+            + "title VARCHAR NOT NULL PRIMARY KEY, "
+            + "release_epoch_day INT NOT NULL, "
+            + "mpaa_rating VARCHAR(8) NOT NULL, "
+            + "director_name VARCHAR NOT NULL, "
+            + "studio VARCHAR NOT NULL, "
+            + "rating SMALLINT NOT NULL, "
+            + "note VARCHAR NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS dvds_director_name ON dvds (director_name)",
+        "CREATE INDEX IF NOT EXISTS dvds_studio ON dvds (studio)"
+    };
+
+    private final JdbcConnectionPool pool;
+    private final Map<String, DVD> overlay = new ConcurrentHashMap<>();
+
+    /**
+     * Titles whose rows in the table have been removed or replaced since
+     * the last save; DVDs added under such a title are in the overlay
+     */
+    private final Set<String> staleTitles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new instance of this class over the database at the given
+     * JDBC URL
+     *
+     * @param jdbcUrl
+     */
+    public DVDLibraryJdbcDaoImpl(String jdbcUrl) {
+        this(jdbcUrl, null, null, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Creates a new instance of this class over the database at the given
+     * JDBC URL, keeping up to the given number of connections open to it
+     *
+     * @param jdbcUrl
+     * @param user
+     * @param password
+     * @param poolSize
+     */
+    public DVDLibraryJdbcDaoImpl(String jdbcUrl, String user, String password, int poolSize) {
+        this.pool = new JdbcConnectionPool(jdbcUrl, user, password, poolSize);
+    }
+
+    /**
+     * Creates the table and its indexes if they do not exist yet, and
+     * discards any unsaved changes
+     *
+     * @throws DVDLibraryDaoException
+     */
+    @Override
+    public synchronized void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        try {
+            Connection connection = pool.borrow();
+            try (Statement statement = connection.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    statement.execute(ddl);
+                }
+            } finally {
+                pool.release(connection);
+            }
+        } catch (SQLException ex) {
+            throw new DVDLibraryDaoException("Unable to load dvds from database", ex);
+        }
+        staleTitles.clear();
+        overlay.clear();
+    }
+
+    @Override
+    public synchronized Optional<DVD> addDVD(DVD subject) {
+        if (getDVDByTitle(subject.getTitle()).isPresent()) {
+            return Optional.empty();
+        }
+        overlay.put(subject.getTitle(), subject);
+        return Optional.of(subject);
+    }
+
+    @Override
+    public synchronized Optional<DVD> removeDVD(String title) {
+        Optional<DVD> removed = getDVDByTitle(title);
+        // a DVD outside the overlay was read from the table
+        if (removed.isPresent() && overlay.remove(title) == null) {
+            staleTitles.add(title);
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized Optional<DVD> saveDVD(DVD modifiedDVD) {
+        if (getDVDByTitle(modifiedDVD.getTitle()).isEmpty()) {
+            return Optional.empty();
+        }
+        if (overlay.put(modifiedDVD.getTitle(), modifiedDVD) == null) {
+            staleTitles.add(modifiedDVD.getTitle());
+        }
+        return Optional.of(modifiedDVD);
+    }
+
+    @Override
+    public synchronized Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        return DVDLibraryDao.super.replaceDVD(expectedDVD, modifiedDVD);
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        DVD overlaid = overlay.get(title);
+        if (overlaid != null) {
+            return Optional.of(overlaid);
+        }
+        if (staleTitles.contains(title)) {
+            return Optional.empty();
+        }
+        List<DVD> found = query(
+            "SELECT " + COLUMNS + " FROM dvds WHERE title = ?", List.of(title), 1
+        );
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        List<DVD> dvds = new ArrayList<>();
+        try (Stream<DVD> stream = streamDVDs()) {
+            stream.forEach(dvds::add);
+        }
+        return dvds;
+    }
+
+    /**
+     * Streams the table with a fetch size, so its rows are never all held
+     * at once, followed by the DVDs added or edited since the last save.
+     * The Stream holds a connection until it is closed
+     *
+     * @return A Stream of every DVD in the collection
+     */
+    @Override
+    public Stream<DVD> streamDVDs() {
+        Map<String, DVD> changed = new HashMap<>(overlay);
+        Set<String> stale = Set.copyOf(staleTitles);
+        Stream<DVD> stored = streamQuery("SELECT " + COLUMNS + " FROM dvds", List.of(), 0)
+            .filter(dvd -> !stale.contains(dvd.getTitle()));
+        return Stream.concat(stored, changed.values().stream());
+    }
+
+    /**
+     * Pushes the query down to the table, merging in any unsaved changes
+     *
+     * @param query
+     * @return A List of the matching DVDs, in no particular order
+     */
+    @Override
+    public List<DVD> findDVDs(DVDQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        String where = whereClause(query, parameters);
+        List<DVD> matches = new ArrayList<>();
+        for (DVD dvd : query("SELECT " + COLUMNS + " FROM dvds" + where, parameters, 0)) {
+            if (!staleTitles.contains(dvd.getTitle())) {
+                matches.add(dvd);
+            }
+        }
+        for (DVD dvd : overlay.values()) {
+            if (query.matches(dvd)) {
+                matches.add(dvd);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public long countDVDs(DVDQuery query) {
+        if (hasUnsavedChanges()) {
+            return findDVDs(query).size();
+        }
+        List<Object> parameters = new ArrayList<>();
+        String where = whereClause(query, parameters);
+        return aggregate("SELECT COUNT(*) FROM dvds" + where, parameters, ResultSet::getLong);
+    }
+
+    @Override
+    public OptionalDouble averageRating(DVDQuery query) {
+        if (hasUnsavedChanges()) {
+            return findDVDs(query).stream().mapToInt(DVD::getRating).average();
+        }
+        List<Object> parameters = new ArrayList<>();
+        String where = whereClause(query, parameters);
+        Double average = aggregate(
+            "SELECT AVG(CAST(rating AS DOUBLE)) FROM dvds" + where, parameters,
+            (resultSet, column) -> {
+                double value = resultSet.getDouble(column);
+                return resultSet.wasNull() ? null : value;
+            }
+        );
+        return average == null ? OptionalDouble.empty() : OptionalDouble.of(average);
+    }
+
+    /**
+     * Reads the page straight from the table in its sort order, unless
+     * there are unsaved changes to merge in
+     *
+     * @param after
+     * @param pageSize
+     * @param sortKey
+     * @return A List of the DVDs on the page, in the given order
+     */
+    @Override
+    public List<DVD> getDVDPage(DVD after, int pageSize, DVDSortKey sortKey) {
+        if (hasUnsavedChanges()) {
+            return DVDLibraryDao.super.getDVDPage(after, pageSize, sortKey);
+        }
+        String column;
+        switch (sortKey) {
+            case RELEASE_DATE:
+                column = "release_epoch_day";
+                break;
+            case RATING:
+                column = "rating";
+                break;
+            default:
+                column = null;
+                break;
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM dvds");
+        List<Object> parameters = new ArrayList<>();
+        if (after != null && column == null) {
+            sql.append(" WHERE title > ?");
+            parameters.add(after.getTitle());
+        } else if (after != null) {
+            int key = sortKey == DVDSortKey.RATING
+                ? after.getRating() : after.getReleaseEpochDay();
+            sql.append(" WHERE ").append(column).append(" > ? OR (")
+                .append(column).append(" = ? AND title > ?)");
+            parameters.add(key);
+            parameters.add(key);
+            parameters.add(after.getTitle());
+        }
+        sql.append(" ORDER BY ");
+        if (column != null) {
+            sql.append(column).append(", ");
+        }
+        sql.append("title");
+        return query(sql.toString(), parameters, pageSize);
+    }
+
+    /**
+     * Applies every change made since the last save to the table, as
+     * batches of deletions and insertions within one transaction
+     *
+     * @throws DVDLibraryDaoException
+     */
+    @Override
+    public synchronized void saveDVDsToExternal() throws DVDLibraryDaoException {
+        if (!hasUnsavedChanges()) {
+            return;
+        }
+        try {
+            Connection connection = pool.borrow();
+            try {
+                connection.setAutoCommit(false);
+                try (PreparedStatement delete = connection.prepareStatement(
+                        "DELETE FROM dvds WHERE title = ?");
+                    PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO dvds (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    int batched = 0;
+                    for (String title : staleTitles) {
+                        delete.setString(1, title);
+                        delete.addBatch();
+                        batched = flushIfFull(delete, batched + 1);
+                    }
+                    delete.executeBatch();
+
+                    batched = 0;
+                    for (DVD dvd : overlay.values()) {
+                        bind(insert, dvd);
+                        insert.addBatch();
+                        batched = flushIfFull(insert, batched + 1);
+                    }
+                    insert.executeBatch();
+                    connection.commit();
+                } catch (SQLException ex) {
+                    connection.rollback();
+                    throw ex;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } finally {
+                pool.release(connection);
+            }
+        } catch (SQLException ex) {
+            throw new DVDLibraryDaoException("Unable to save dvds to database", ex);
+        }
+        // a lookup in between falls back on the table, which is up to date
+        staleTitles.clear();
+        overlay.clear();
+    }
+
+    /**
+     * Closes every pooled connection
+     */
+    public void close() {
+        pool.close();
+    }
+
+    private boolean hasUnsavedChanges() {
+        return !overlay.isEmpty() || !staleTitles.isEmpty();
+    }
+
+    private static int flushIfFull(PreparedStatement statement, int batched)
+        throws SQLException {
+        if (batched < BATCH_SIZE) {
+            return batched;
+        }
+        statement.executeBatch();
+        return 0;
+    }
+
+    /**
+     * Builds the WHERE clause for the criteria of the query, collecting the
+     * values to bind to it
+     */
+    private static String whereClause(DVDQuery query, List<Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (query.getDirectorName() != null) {
+            conditions.add("director_name = ?");
+            parameters.add(query.getDirectorName());
+        }
+        if (query.getStudio() != null) {
+            conditions.add("studio = ?");
+            parameters.add(query.getStudio());
+        }
+        if (query.getMpaaRating() != null) {
+            conditions.add("mpaa_rating = ?");
+            parameters.add(query.getMpaaRating().getLabel());
+        }
+        if (query.hasReleaseRange()) {
+            conditions.add("release_epoch_day BETWEEN ? AND ?");
+            parameters.add(query.getMinReleaseEpochDay());
+            parameters.add(query.getMaxReleaseEpochDay());
+        }
+        if (query.hasRatingRange()) {
+            conditions.add("rating BETWEEN ? AND ?");
+            parameters.add(query.getMinRating());
+            parameters.add(query.getMaxRating());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Runs a query for DVDs, reading at most the given number of rows, or
+     * every row if that number is 0
+     */
+    private List<DVD> query(String sql, List<Object> parameters, int maxRows) {
+        List<DVD> dvds = new ArrayList<>();
+        try (Stream<DVD> stream = streamQuery(sql, parameters, maxRows)) {
+            stream.forEach(dvds::add);
+        }
+        return dvds;
+    }
+
+    /**
+     * Runs a query for DVDs, reading its rows as the Stream is consumed.
+     * The connection is held until the Stream is closed
+     */
+    private Stream<DVD> streamQuery(String sql, List<Object> parameters, int maxRows) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = pool.borrow();
+            statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setMaxRows(maxRows);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            ResultSet rows = statement.executeQuery();
+            Connection borrowed = connection;
+            PreparedStatement executed = statement;
+            Spliterator<DVD> spliterator = new Spliterators.AbstractSpliterator<DVD>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL
+            ) {
+                @Override
+                public boolean tryAdvance(Consumer<? super DVD> action) {
+                    try {
+                        if (!rows.next()) {
+                            return false;
+                        }
+                        action.accept(read(rows));
+                        return true;
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException("Unable to read dvds from database", ex);
+                    }
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    executed.close();
+                } catch (SQLException ex) {
+                    // the connection is released regardless
+                } finally {
+                    pool.release(borrowed);
+                }
+            });
+        } catch (SQLException ex) {
+            if (connection != null) {
+                try {
+                    if (statement != null) {
+                        statement.close();
+                    }
+                } catch (SQLException closeFailure) {
+                    ex.addSuppressed(closeFailure);
+                }
+                pool.release(connection);
+            }
+            throw new IllegalStateException("Unable to query the database", ex);
+        }
+    }
+
+    /**
+     * Reads the value of a query with a single result
+     */
+    private <T> T aggregate(String sql, List<Object> parameters, ColumnReader<T> reader) {
+        try {
+            Connection connection = pool.borrow();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return reader.read(rows, 1);
+                }
+            } finally {
+                pool.release(connection);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Unable to query the database", ex);
+        }
+    }
+
+    private static DVD read(ResultSet rows) throws SQLException {
+        String label = rows.getString(3);
+        MpaaRating mpaaRating = MpaaRating.fromLabel(label)
+            .orElseThrow(() -> new SQLException("Unknown MPAA rating " + label));
+        return DVD.builder(rows.getString(1))
+            .releaseEpochDay(rows.getInt(2))
+            .mpaaRating(mpaaRating)
+            .directorName(rows.getString(4))
+            .studio(rows.getString(5))
+            .rating(rows.getInt(6))
+            .note(rows.getString(7))
+            .build();
+    }
+
+    private static void bind(PreparedStatement statement, DVD dvd) throws SQLException {
+        statement.setString(1, dvd.getTitle());
+        statement.setInt(2, dvd.getReleaseEpochDay());
+        statement.setString(3, dvd.getMpaaRating().getLabel());
+        statement.setString(4, dvd.getDirectorName());
+        statement.setString(5, dvd.getStudio());
+        statement.setInt(6, dvd.getRating());
+        statement.setString(7, dvd.getNote());
+    }
+
+    /**
+     * Reads a column of the current row of a ResultSet
+     */
+    private interface ColumnReader<T> {
+        T read(ResultSet rows, int column) throws SQLException;
+    }
+}
@@ -0,0 +1,566 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Make each DAO mutation durable through a write-ahead journal
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Wraps another DAO, appending every successful mutation to a journal file
+ * so that a killed process loses nothing that was acknowledged.
+ *
+ * Journal appends are group-committed: a single committer thread writes and
+ * forces everything appended since its last commit at once. When the
+ * collection is loaded, the journal is replayed over the snapshot held by
+ * the wrapped DAO, and a background compactor periodically folds the
+ * journal into a fresh snapshot through the wrapped DAO's
+ * saveDVDsToExternal().
+ *
+ * Entries are "::" delimited records, so DVDs whose record would not parse
+ * back are rejected with an IllegalArgumentException. Should an entry
+ * still be unreadable, replay skips it and reports it once loading is
+ * over; only an entry torn by a crash is cut off the journal.
+ *
+ * Folding does not hold up mutations: the journal is first rotated aside,
+ * later entries go to a fresh one, and the rotated journal is only deleted
+ * once the snapshot is written. Since the snapshot is written while the
+ * collection is being mutated, the wrapped DAO must be thread-safe, such
+ * as DVDLibraryConcurrentDaoImpl
+ *
+ * @author agent
+ */
+public class DVDLibraryJournalingDao implements DVDLibraryDao {
+    private static final char PUT = '+';
+    private static final char DELETE = '-';
+    private static final byte NEWLINE = '\n';
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Only this many malformed entries are described when loading; the
+     * rest are only counted
+     */
+    private static final int MAX_REPORTED_ENTRIES = 20;
+
+    private final DVDLibraryDao delegate;
+    private final Path journalFile;
+
+    /**
+     * Holds the entries of a journal rotated aside until the snapshot that
+     * includes them has been written
+     */
+    private final Path rotatedFile;
+
+    private boolean synchronousCommit = true;
+    private long commitIntervalMillis = 10;
+    private long compactionIntervalSeconds = 300;
+
+    /**
+     * Guards the pending entries and the sequence numbers below
+     */
+    private final Object journalLock = new Object();
+    private StringBuilder pending = new StringBuilder();
+    private long appendedSeq;
+    private long durableSeq;
+    private IOException commitFailure;
+
+    /**
+     * Guards writes to, and rotation of, the journal channel
+     */
+    private final Object ioLock = new Object();
+
+    /**
+     * Lets only one snapshot be written at a time
+     */
+    private final Object saveLock = new Object();
+    private volatile FileChannel channel;
+    private Thread committer;
+    private ScheduledExecutorService compactor;
+    private volatile boolean running;
+
+    /**
+     * Creates a new instance of this class which journals the mutations
+     * made to the given DAO in the given file
+     *
+     * @param delegate The DAO holding the collection and its snapshot
+     * @param journalFile
+     */
+    public DVDLibraryJournalingDao(DVDLibraryDao delegate, Path journalFile) {
+        this.delegate = delegate;
+        this.journalFile = journalFile;
+        this.rotatedFile = journalFile.resolveSibling(journalFile.getFileName() + ".old");
+    }
+
+    /**
+     * Sets whether mutations wait until their journal entry has been forced
+     * to disk. If they don't, entries are committed in batches every commit
+     * interval, and a crash may lose the most recent batch
+     *
+     * @param synchronousCommit
+     */
+    public void setSynchronousCommit(boolean synchronousCommit) {
+        this.synchronousCommit = synchronousCommit;
+    }
+
+    /**
+     * Sets how long the committer waits to gather a batch when commits
+     * are not synchronous
+     *
+     * @param commitIntervalMillis
+     */
+    public void setCommitIntervalMillis(long commitIntervalMillis) {
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    /**
+     * Sets how often the journal is folded into a fresh snapshot. Must be
+     * set before the collection is loaded
+     *
+     * @param compactionIntervalSeconds
+     */
+    public void setCompactionIntervalSeconds(long compactionIntervalSeconds) {
+        this.compactionIntervalSeconds = compactionIntervalSeconds;
+    }
+
+    @Override
+    public synchronized void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        // a missing or partly malformed snapshot must not stop the replay
+        DVDLibraryDaoException snapshotFailure = null;
+        try {
+            delegate.loadDVDsFromExternal();
+        } catch (DVDLibraryDaoException ex) {
+            snapshotFailure = ex;
+        }
+
+        List<String> skippedEntries = new ArrayList<>();
+        try {
+            // a rotated journal is older than the current one
+            replayJournal(rotatedFile, skippedEntries);
+            replayJournal(journalFile, skippedEntries);
+            channel = FileChannel.open(
+                journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+            channel.position(channel.size());
+        } catch (IOException ex) {
+            throw new DVDLibraryDaoException("Unable to replay the journal", ex);
+        }
+        startBackgroundThreads();
+
+        if (!skippedEntries.isEmpty()) {
+            DVDLibraryDaoException replayFailure = new DVDLibraryDaoException(
+                describeSkippedEntries(skippedEntries)
+            );
+            if (snapshotFailure != null) {
+                replayFailure.addSuppressed(snapshotFailure);
+            }
+            throw replayFailure;
+        }
+        if (snapshotFailure != null) {
+            throw snapshotFailure;
+        }
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        long seq;
+        Optional<DVD> result;
+        DVDRecordCodec.requireFormattable(subject);
+        synchronized (this) {
+            result = delegate.addDVD(subject);
+            if (result.isEmpty()) {
+                return result;
+            }
+            seq = appendPut(subject);
+        }
+        awaitCommit(seq);
+        return result;
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        long seq;
+        Optional<DVD> result;
+        synchronized (this) {
+            result = delegate.removeDVD(title);
+            if (result.isEmpty()) {
+                return result;
+            }
+            seq = appendDelete(title);
+        }
+        awaitCommit(seq);
+        return result;
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        long seq;
+        Optional<DVD> result;
+        DVDRecordCodec.requireFormattable(modifiedDVD);
+        synchronized (this) {
+            result = delegate.saveDVD(modifiedDVD);
+            if (result.isEmpty()) {
+                return result;
+            }
+            seq = appendPut(modifiedDVD);
+        }
+        awaitCommit(seq);
+        return result;
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        long seq;
+        Optional<DVD> result;
+        DVDRecordCodec.requireFormattable(modifiedDVD);
+        synchronized (this) {
+            result = delegate.replaceDVD(expectedDVD, modifiedDVD);
+            if (result.isEmpty()) {
+                return result;
+            }
+            seq = appendPut(modifiedDVD);
+        }
+        awaitCommit(seq);
+        return result;
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        return delegate.getDVDByTitle(title);
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        return delegate.getAllDVDs();
+    }
+
+    @Override
+    public Stream<DVD> streamDVDs() {
+        return delegate.streamDVDs();
+    }
+
+    /**
+     * Folds the journal into a fresh snapshot written by the wrapped DAO,
+     * while mutations carry on into a fresh journal
+     *
+     * @throws DVDLibraryDaoException
+     */
+    @Override
+    public void saveDVDsToExternal() throws DVDLibraryDaoException {
+        synchronized (saveLock) {
+            if (channel == null) {
+                delegate.saveDVDsToExternal();
+                return;
+            }
+            try {
+                rotateJournal();
+            } catch (IOException ex) {
+                throw new DVDLibraryDaoException("Unable to rotate the journal", ex);
+            }
+            // entries in both journals are replayed over whatever the
+            // snapshot holds, so it may include some later mutations too
+            delegate.saveDVDsToExternal();
+            try {
+                Files.deleteIfExists(rotatedFile);
+            } catch (IOException ex) {
+                throw new DVDLibraryDaoException("Unable to delete the rotated journal", ex);
+            }
+        }
+    }
+
+    /**
+     * Stops the committer and compactor threads, after committing any
+     * pending journal entries
+     */
+    public void close() {
+        running = false;
+        if (compactor != null) {
+            compactor.shutdown();
+        }
+        if (committer != null) {
+            synchronized (journalLock) {
+                journalLock.notifyAll();
+            }
+            try {
+                committer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            // nothing left to commit through it
+        }
+    }
+
+    private long appendPut(DVD dvd) {
+        synchronized (journalLock) {
+            pending.append(PUT);
+            DVDRecordCodec.format(dvd, pending);
+            return appended();
+        }
+    }
+
+    private long appendDelete(String title) {
+        synchronized (journalLock) {
+            pending.append(DELETE).append(title).append(LINE_SEPARATOR);
+            return appended();
+        }
+    }
+
+    /**
+     * Moves every entry committed so far into the rotated journal, after
+     * any left there by a snapshot that could not be written, and starts
+     * the current journal afresh
+     */
+    private void rotateJournal() throws IOException {
+        synchronized (ioLock) {
+            if (Files.exists(rotatedFile)) {
+                try (FileChannel rotated = FileChannel.open(
+                    rotatedFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+                )) {
+                    long position = 0;
+                    long size = channel.size();
+                    while (position < size) {
+                        position += channel.transferTo(position, size - position, rotated);
+                    }
+                    rotated.force(true);
+                }
+                channel.truncate(0);
+                channel.force(true);
+            } else {
+                channel.close();
+                Files.move(journalFile, rotatedFile, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(
+                    journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE
+                );
+            }
+        }
+    }
+
+    private long appended() {
+        appendedSeq++;
+        journalLock.notifyAll();
+        return appendedSeq;
+    }
+
+    /**
+     * Waits until the entry with the given sequence number is durable,
+     * when commits are synchronous
+     */
+    private void awaitCommit(long seq) {
+        if (!synchronousCommit) {
+            return;
+        }
+        synchronized (journalLock) {
+            while (durableSeq < seq && commitFailure == null) {
+                try {
+                    journalLock.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(
+                        "Interrupted before the journal was committed", ex
+                    );
+                }
+            }
+            if (commitFailure != null) {
+                throw new IllegalStateException(
+                    "The journal could not be committed", commitFailure
+                );
+            }
+        }
+    }
+
+    private void startBackgroundThreads() {
+        if (running) {
+            return;
+        }
+        running = true;
+        committer = new Thread(this::commitLoop, "dvd-journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dvd-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(
+            this::compactQuietly,
+            compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS
+        );
+    }
+
+    private void compactQuietly() {
+        try {
+            saveDVDsToExternal();
+        } catch (DVDLibraryDaoException ex) {
+            // the journal is still intact, so the next attempt loses nothing
+        }
+    }
+
+    /**
+     * Repeatedly takes every entry appended since the last commit and
+     * writes and forces them as one batch
+     */
+    private void commitLoop() {
+        while (true) {
+            String batch;
+            long batchSeq;
+            synchronized (journalLock) {
+                while (pending.length() == 0 && running) {
+                    try {
+                        journalLock.wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+                if (pending.length() == 0) {
+                    return;
+                }
+                batch = pending.toString();
+                pending = new StringBuilder(batch.length());
+                batchSeq = appendedSeq;
+            }
+
+            try {
+                // a batch taken before a rotation lands in the fresh journal,
+                // ahead of every later entry, and is simply replayed again
+                synchronized (ioLock) {
+                    ByteBuffer bytes = StandardCharsets.UTF_8.encode(batch);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(false);
+                }
+            } catch (IOException ex) {
+                synchronized (journalLock) {
+                    commitFailure = ex;
+                    journalLock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (journalLock) {
+                durableSeq = Math.max(durableSeq, batchSeq);
+                journalLock.notifyAll();
+            }
+            if (!synchronousCommit && running) {
+                try {
+                    Thread.sleep(commitIntervalMillis);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies every complete journal entry to the wrapped DAO, then cuts off
+     * the entry left half-written by a crash, if any. Complete entries that
+     * cannot be understood are skipped and described in skippedEntries, so
+     * the entries after them are still replayed
+     */
+    private void replayJournal(Path journalFile, List<String> skippedEntries)
+        throws IOException {
+        if (!Files.exists(journalFile)) {
+            return;
+        }
+        ByteBuffer journal = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+        DVDRecordCodec codec = new DVDRecordCodec();
+        int lineStart = 0;
+        long lineNumber = 0;
+        for (int i = 0; i < journal.limit(); i++) {
+            if (journal.get(i) != NEWLINE) {
+                continue;
+            }
+            lineNumber++;
+            String error = replayEntry(journal, lineStart, i, codec);
+            if (error != null) {
+                skippedEntries.add(journalFile + " line " + lineNumber + ": " + error);
+            }
+            lineStart = i + 1;
+        }
+
+        // only an entry without its line separator can have been torn
+        if (lineStart < journal.limit()) {
+            try (FileChannel truncating = FileChannel.open(
+                journalFile, StandardOpenOption.WRITE
+            )) {
+                truncating.truncate(lineStart);
+                truncating.force(true);
+            }
+        }
+    }
+
+    /**
+     * Applies a single journal entry to the wrapped DAO
+     *
+     * @return Why the entry could not be applied, or null if it was
+     */
+    private String replayEntry(ByteBuffer journal, int start, int end, DVDRecordCodec codec) {
+        if (end <= start) {
+            return "empty entry";
+        }
+        char kind = (char) journal.get(start);
+        if (kind == PUT) {
+            DVD dvd = codec.parse(journal, start + 1, end);
+            if (dvd == null) {
+                return codec.getLastError();
+            }
+            if (delegate.saveDVD(dvd).isEmpty()) {
+                delegate.addDVD(dvd);
+            }
+            return null;
+        }
+        if (kind == DELETE) {
+            int titleEnd = end;
+            if (titleEnd > start + 1 && journal.get(titleEnd - 1) == '\r') {
+                titleEnd--;
+            }
+            delegate.removeDVD(new String(
+                journal.array(), start + 1, titleEnd - start - 1, StandardCharsets.UTF_8
+            ));
+            return null;
+        }
+        return "unknown entry kind '" + kind + "'";
+    }
+
+    private static String describeSkippedEntries(List<String> skippedEntries) {
+        StringBuilder description = new StringBuilder()
+            .append("Skipped ").append(skippedEntries.size())
+            .append(" malformed journal entry(s)");
+        String separator = ": ";
+        for (int i = 0; i < Math.min(skippedEntries.size(), MAX_REPORTED_ENTRIES); i++) {
+            description.append(separator).append(skippedEntries.get(i));
+            separator = "; ";
+        }
+        if (skippedEntries.size() > MAX_REPORTED_ENTRIES) {
+            description.append("; ...");
+        }
+        return description.toString();
+    }
+}
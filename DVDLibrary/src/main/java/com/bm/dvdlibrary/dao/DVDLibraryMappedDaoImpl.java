@@ -0,0 +1,191 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Serve a binary library from a memory mapping, decoding lazily
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A read-mostly DAO over the binary library file that never materializes
+ * the whole collection on the heap.
+ *
+ * The file is memory-mapped and indexed off-heap by title, and DVDs are
+ * only decoded when they are asked for. Additions, edits and removals are
+ * kept in an in-memory overlay, which is merged with the mapped file into
+ * a fresh binary file when the collection is saved
+ *
+ * @author agent
+ */
+public class DVDLibraryMappedDaoImpl implements DVDLibraryDao {
+    private static final String SRC_FILENAME = "dvds.bin";
+
+    private final Path srcFile;
+    private MappedDVDFile mappedFile;
+    private final Map<String, DVD> overlay = new HashMap<>();
+    private final Set<String> removedTitles = new HashSet<>();
+
+    public DVDLibraryMappedDaoImpl() {
+        this(SRC_FILENAME);
+    }
+
+    /**
+     * Creates a new instance of this class whose collection is
+     * stored in the given binary file
+     *
+     * @param srcFilename
+     */
+    public DVDLibraryMappedDaoImpl(String srcFilename) {
+        this.srcFile = Paths.get(srcFilename);
+    }
+
+    @Override
+    public void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        try {
+            mappedFile = new MappedDVDFile(srcFile);
+        } catch (IOException ex) {
+            throw new DVDLibraryDaoException("Unable to load dvds from file", ex);
+        }
+        overlay.clear();
+        removedTitles.clear();
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        if (getDVDByTitle(subject.getTitle()).isPresent()) {
+            return Optional.empty();
+        }
+        overlay.put(subject.getTitle(), subject);
+        removedTitles.remove(subject.getTitle());
+        return Optional.of(subject);
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        Optional<DVD> receivedDVD = getDVDByTitle(title);
+        if (receivedDVD.isPresent()) {
+            overlay.remove(title);
+            if (mappedFile != null && mappedFile.get(title) != null) {
+                removedTitles.add(title);
+            }
+        }
+        return receivedDVD;
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        if (getDVDByTitle(modifiedDVD.getTitle()).isEmpty()) {
+            return Optional.empty();
+        }
+        overlay.put(modifiedDVD.getTitle(), modifiedDVD);
+        return Optional.of(modifiedDVD);
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        DVD overlaid = overlay.get(title);
+        if (overlaid != null) {
+            return Optional.of(overlaid);
+        }
+        if (mappedFile == null || removedTitles.contains(title)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(mappedFile.get(title));
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        List<DVD> dvds = new ArrayList<>();
+        forEachDVD(dvds::add);
+        return dvds;
+    }
+
+    /**
+     * Streams the mapped file, decoding its DVDs one at a time, followed by
+     * those that were added or edited since it was written
+     *
+     * @return A Stream of every DVD in the collection
+     */
+    @Override
+    public Stream<DVD> streamDVDs() {
+        if (mappedFile == null) {
+            return overlay.values().stream();
+        }
+        return Stream.concat(
+            mappedFile.stream().filter(
+                dvd -> !overlay.containsKey(dvd.getTitle())
+                    && !removedTitles.contains(dvd.getTitle())
+            ),
+            overlay.values().stream()
+        );
+    }
+
+    /**
+     * Merges the overlay with the mapped file into a fresh binary file,
+     * which is then mapped in place of the old one
+     *
+     * @throws DVDLibraryDaoException
+     */
+    @Override
+    public void saveDVDsToExternal() throws DVDLibraryDaoException {
+        if (overlay.isEmpty() && removedTitles.isEmpty() && Files.exists(srcFile)) {
+            return;
+        }
+        try {
+            AtomicFiles.write(srcFile, channel -> {
+                DVDBinaryFileWriter writer = new DVDBinaryFileWriter(channel);
+                try {
+                    forEachDVD(dvd -> {
+                        try {
+                            writer.append(dvd);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                } catch (UncheckedIOException ex) {
+                    throw ex.getCause();
+                }
+                writer.finish();
+            });
+            mappedFile = new MappedDVDFile(srcFile);
+        } catch (IOException ex) {
+            throw new DVDLibraryDaoException("Unable to save dvds to file", ex);
+        }
+        overlay.clear();
+        removedTitles.clear();
+    }
+
+    /**
+     * Streams every DVD in the collection through the sink, decoding those
+     * in the mapped file one at a time
+     */
+    private void forEachDVD(Consumer<DVD> sink) {
+        if (mappedFile != null) {
+            mappedFile.forEach(dvd -> {
+                if (!overlay.containsKey(dvd.getTitle())
+                    && !removedTitles.contains(dvd.getTitle())) {
+                    sink.accept(dvd);
+                }
+            });
+        }
+        overlay.values().forEach(sink);
+    }
+}
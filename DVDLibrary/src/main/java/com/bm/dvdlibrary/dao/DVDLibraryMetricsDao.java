@@ -0,0 +1,365 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Measure the operations of another DAO
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Wraps another DAO, recording how long each of its operations takes,
+ * how often lookups by title find a DVD, how large the collection is, and
+ * how large its stored form was after each load and save.
+ *
+ * Latencies go into lock-free LatencyHistograms and counts into
+ * LongAdders, so recording costs tens of nanoseconds and can stay on in
+ * production. The metrics can be published through JMX with register(),
+ * and logged periodically with startLogging()
+ *
+ * @author agent
+ */
+public class DVDLibraryMetricsDao implements DVDLibraryDao, DVDLibraryMetricsMXBean {
+    private static final Logger LOGGER = Logger.getLogger(DVDLibraryMetricsDao.class.getName());
+
+    /**
+     * The kinds of operation whose latencies are recorded separately
+     */
+    private enum Operation {
+        LOAD("loadDVDsFromExternal"),
+        SAVE_ALL("saveDVDsToExternal"),
+        ADD("addDVD"),
+        REMOVE("removeDVD"),
+        EDIT("saveDVD"),
+        GET("getDVDByTitle"),
+        LIST("getAllDVDs"),
+        PAGE("getDVDPage"),
+        QUERY("findDVDs"),
+        SEARCH("search");
+
+        private final String label;
+
+        private Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private final DVDLibraryDao delegate;
+    private final Path storageFile;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder lookupHits = new LongAdder();
+    private final LongAdder lookupMisses = new LongAdder();
+    private final AtomicLong collectionSize = new AtomicLong();
+    private volatile long lastLoadBytes = -1;
+    private volatile long lastSaveBytes = -1;
+
+    private ObjectName registeredName;
+    private ScheduledExecutorService logger;
+
+    /**
+     * Creates a new instance of this class which measures the given DAO
+     *
+     * @param delegate
+     */
+    public DVDLibraryMetricsDao(DVDLibraryDao delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * Creates a new instance of this class which measures the given DAO,
+     * which stores its collection in the given file
+     *
+     * @param delegate
+     * @param storageFile The file whose size is recorded after each load
+     * and save, or null if it should not be
+     */
+    public DVDLibraryMetricsDao(DVDLibraryDao delegate, Path storageFile) {
+        this.delegate = delegate;
+        this.storageFile = storageFile;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Publishes the metrics as an MXBean named
+     * com.bm.dvdlibrary:type=DVDLibraryDao,name=(the given name)
+     *
+     * @param name
+     * @throws JMException If the name is taken or malformed
+     */
+    public synchronized void register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(
+            "com.bm.dvdlibrary:type=DVDLibraryDao,name=" + ObjectName.quote(name)
+        );
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        registeredName = objectName;
+    }
+
+    /**
+     * Logs a summary of the metrics at INFO level every given number of
+     * seconds, on a daemon thread
+     *
+     * @param intervalSeconds
+     */
+    public synchronized void startLogging(long intervalSeconds) {
+        if (logger != null) {
+            return;
+        }
+        logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dvd-metrics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleAtFixedRate(
+            () -> LOGGER.info(describe()), intervalSeconds, intervalSeconds, TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Stops logging and withdraws the MXBean, if either was started
+     */
+    public synchronized void close() {
+        if (logger != null) {
+            logger.shutdown();
+            logger = null;
+        }
+        if (registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            } catch (JMException ex) {
+                LOGGER.log(Level.FINE, "Unable to unregister " + registeredName, ex);
+            }
+            registeredName = null;
+        }
+    }
+
+    /**
+     * Summarizes every metric on one line per operation
+     *
+     * @return The aforementioned summary
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder()
+            .append("DVDs: ").append(getCollectionSize())
+            .append(", lookup hits: ").append(getLookupHits())
+            .append(", lookup misses: ").append(getLookupMisses())
+            .append(", last load bytes: ").append(lastLoadBytes)
+            .append(", last save bytes: ").append(lastSaveBytes);
+        for (Map.Entry<String, LatencySummary> entry : getLatencies().entrySet()) {
+            description.append(System.lineSeparator())
+                .append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return description.toString();
+    }
+
+    @Override
+    public void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        long start = System.nanoTime();
+        try {
+            delegate.loadDVDsFromExternal();
+        } finally {
+            latencies.get(Operation.LOAD).record(System.nanoTime() - start);
+            try (Stream<DVD> dvds = delegate.streamDVDs()) {
+                collectionSize.set(dvds.count());
+            }
+            lastLoadBytes = storageSize();
+        }
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        long start = System.nanoTime();
+        Optional<DVD> added = delegate.addDVD(subject);
+        latencies.get(Operation.ADD).record(System.nanoTime() - start);
+        if (added.isPresent()) {
+            collectionSize.incrementAndGet();
+        }
+        return added;
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        long start = System.nanoTime();
+        Optional<DVD> removed = delegate.removeDVD(title);
+        latencies.get(Operation.REMOVE).record(System.nanoTime() - start);
+        if (removed.isPresent()) {
+            collectionSize.decrementAndGet();
+        }
+        return removed;
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        long start = System.nanoTime();
+        Optional<DVD> saved = delegate.saveDVD(modifiedDVD);
+        latencies.get(Operation.EDIT).record(System.nanoTime() - start);
+        return saved;
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        long start = System.nanoTime();
+        Optional<DVD> saved = delegate.replaceDVD(expectedDVD, modifiedDVD);
+        latencies.get(Operation.EDIT).record(System.nanoTime() - start);
+        return saved;
+    }
+
+    @Override
+    public Optional<DVD> getDVDByTitle(String title) {
+        long start = System.nanoTime();
+        Optional<DVD> found = delegate.getDVDByTitle(title);
+        latencies.get(Operation.GET).record(System.nanoTime() - start);
+        if (found.isPresent()) {
+            lookupHits.increment();
+        } else {
+            lookupMisses.increment();
+        }
+        return found;
+    }
+
+    @Override
+    public List<DVD> getAllDVDs() {
+        long start = System.nanoTime();
+        List<DVD> dvds = delegate.getAllDVDs();
+        latencies.get(Operation.LIST).record(System.nanoTime() - start);
+        return dvds;
+    }
+
+    @Override
+    public Stream<DVD> streamDVDs() {
+        return delegate.streamDVDs();
+    }
+
+    @Override
+    public List<DVD> getDVDPage(DVD after, int pageSize, DVDSortKey sortKey) {
+        long start = System.nanoTime();
+        List<DVD> page = delegate.getDVDPage(after, pageSize, sortKey);
+        latencies.get(Operation.PAGE).record(System.nanoTime() - start);
+        return page;
+    }
+
+    @Override
+    public List<DVD> findDVDs(DVDQuery query) {
+        long start = System.nanoTime();
+        List<DVD> matches = delegate.findDVDs(query);
+        latencies.get(Operation.QUERY).record(System.nanoTime() - start);
+        return matches;
+    }
+
+    @Override
+    public long countDVDs(DVDQuery query) {
+        long start = System.nanoTime();
+        long count = delegate.countDVDs(query);
+        latencies.get(Operation.QUERY).record(System.nanoTime() - start);
+        return count;
+    }
+
+    @Override
+    public OptionalDouble averageRating(DVDQuery query) {
+        long start = System.nanoTime();
+        OptionalDouble average = delegate.averageRating(query);
+        latencies.get(Operation.QUERY).record(System.nanoTime() - start);
+        return average;
+    }
+
+    @Override
+    public List<DVD> searchTitles(String text, int limit) {
+        long start = System.nanoTime();
+        List<DVD> matches = delegate.searchTitles(text, limit);
+        latencies.get(Operation.SEARCH).record(System.nanoTime() - start);
+        return matches;
+    }
+
+    @Override
+    public List<DVD> searchNotes(String text, int limit) {
+        long start = System.nanoTime();
+        List<DVD> matches = delegate.searchNotes(text, limit);
+        latencies.get(Operation.SEARCH).record(System.nanoTime() - start);
+        return matches;
+    }
+
+    @Override
+    public DVDStatistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    @Override
+    public void saveDVDsToExternal() throws DVDLibraryDaoException {
+        long start = System.nanoTime();
+        try {
+            delegate.saveDVDsToExternal();
+        } finally {
+            latencies.get(Operation.SAVE_ALL).record(System.nanoTime() - start);
+            lastSaveBytes = storageSize();
+        }
+    }
+
+    @Override
+    public long getCollectionSize() {
+        return collectionSize.get();
+    }
+
+    @Override
+    public long getLookupHits() {
+        return lookupHits.sum();
+    }
+
+    @Override
+    public long getLookupMisses() {
+        return lookupMisses.sum();
+    }
+
+    @Override
+    public long getLastLoadBytes() {
+        return lastLoadBytes;
+    }
+
+    @Override
+    public long getLastSaveBytes() {
+        return lastSaveBytes;
+    }
+
+    @Override
+    public Map<String, LatencySummary> getLatencies() {
+        Map<String, LatencySummary> summaries = new LinkedHashMap<>();
+        latencies.forEach((operation, histogram) ->
+            summaries.put(operation.label, histogram.summarize())
+        );
+        return summaries;
+    }
+
+    private long storageSize() {
+        if (storageFile == null) {
+            return -1;
+        }
+        try {
+            return Files.size(storageFile);
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+}
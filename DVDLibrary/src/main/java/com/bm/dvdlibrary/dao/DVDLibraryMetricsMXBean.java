@@ -0,0 +1,61 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Expose DAO metrics through JMX
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.util.Map;
+
+/**
+ * The metrics gathered by DVDLibraryMetricsDao, as seen through JMX
+ *
+ * @author agent
+ */
+public interface DVDLibraryMetricsMXBean {
+    /**
+     * Obtains the number of DVDs in the collection
+     *
+     * @return The aforementioned number
+     */
+    public long getCollectionSize();
+
+    /**
+     * Obtains the number of lookups by title that found a DVD
+     *
+     * @return The aforementioned number
+     */
+    public long getLookupHits();
+
+    /**
+     * Obtains the number of lookups by title that found no DVD
+     *
+     * @return The aforementioned number
+     */
+    public long getLookupMisses();
+
+    /**
+     * Obtains the size of the stored collection after the last load
+     *
+     * @return The aforementioned size in bytes, or -1 if unknown
+     */
+    public long getLastLoadBytes();
+
+    /**
+     * Obtains the size of the stored collection after the last save
+     *
+     * @return The aforementioned size in bytes, or -1 if unknown
+     */
+    public long getLastSaveBytes();
+
+    /**
+     * Obtains a summary of the latencies of each kind of operation, which
+     * include those of loading and saving the collection
+     *
+     * @return A Map from operation name to the aforementioned summary
+     */
+    public Map<String, LatencySummary> getLatencies();
+}
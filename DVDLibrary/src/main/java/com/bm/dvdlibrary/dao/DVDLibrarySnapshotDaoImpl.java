@@ -0,0 +1,394 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Save point-in-time snapshots of the collection in the background
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.time.Duration;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe version of DVDLibraryDaoImpl that saves the collection in
+ * the background, at a fixed interval and after a given number of
+ * mutations.
+ *
+ * The collection is held in a persistent map, which each mutation replaces
+ * with an updated copy that shares nearly all of its structure. Taking a
+ * snapshot is a single read of the current map, so a snapshot is written
+ * without blocking lookups or mutations, and holds exactly the mutations
+ * made before it was taken. Lookups never lock; mutations, including
+ * replaceDVD(), are atomic and only contend with each other
+ *
+ * @author agent
+ */
+public class DVDLibrarySnapshotDaoImpl extends DVDLibraryDaoImpl {
+    private Duration snapshotInterval = Duration.ofMinutes(1);
+    private long snapshotMutations = 1000;
+    private volatile ScheduledExecutorService snapshotter;
+
+    /**
+     * Whether snapshots were started, and whether loading the collection
+     * has been attempted, so snapshots wait for it
+     */
+    private boolean snapshotsStarted;
+    private boolean loadAttempted;
+
+    /**
+     * The number of mutations made so far, and the number the latest
+     * snapshot or save holds
+     */
+    private final AtomicLong mutationCount = new AtomicLong();
+    private volatile long savedMutationCount;
+    private final AtomicBoolean snapshotQueued = new AtomicBoolean();
+    private final AtomicLong snapshotCount = new AtomicLong();
+    private volatile DVDLibraryDaoException snapshotFailure;
+
+    public DVDLibrarySnapshotDaoImpl() {
+        this("dvds.txt");
+    }
+
+    /**
+     * Creates a new instance of this class whose collection is
+     * stored in the given file
+     *
+     * @param srcFilename
+     */
+    public DVDLibrarySnapshotDaoImpl(String srcFilename) {
+        super(srcFilename, new CopyOnWriteDVDMap());
+    }
+
+    /**
+     * Sets how often a snapshot is saved while there are mutations it would
+     * hold. Must be set before snapshots are started
+     *
+     * @param snapshotInterval
+     */
+    public void setSnapshotInterval(Duration snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Sets the number of mutations after which a snapshot is saved without
+     * waiting for the interval to elapse, or 0 to only save at the interval
+     *
+     * @param snapshotMutations
+     */
+    public void setSnapshotMutations(long snapshotMutations) {
+        this.snapshotMutations = snapshotMutations;
+    }
+
+    /**
+     * Obtains the number of snapshots saved in the background so far
+     *
+     * @return The aforementioned number
+     */
+    public long getSnapshotCount() {
+        return snapshotCount.get();
+    }
+
+    /**
+     * Obtains the reason the latest background snapshot could not be
+     * saved, if it could not
+     *
+     * @return The aforementioned reason, or an empty instance
+     */
+    public Optional<DVDLibraryDaoException> getSnapshotFailure() {
+        return Optional.ofNullable(snapshotFailure);
+    }
+
+    /**
+     * Starts saving snapshots in the background. If the collection has not
+     * been loaded yet, they only start once loading is over, whether it
+     * succeeded or not, so a snapshot never holds a partly loaded collection
+     */
+    public synchronized void startSnapshots() {
+        snapshotsStarted = true;
+        if (snapshotter != null || !loadAttempted) {
+            return;
+        }
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dvd-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = snapshotInterval.toMillis();
+        snapshotter.scheduleWithFixedDelay(
+            this::snapshot, period, period, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops saving snapshots in the background, waiting for one in
+     * progress to finish. Mutations since the latest snapshot are only
+     * kept if the collection is saved afterwards
+     */
+    public void close() {
+        ScheduledExecutorService stopped;
+        synchronized (this) {
+            snapshotsStarted = false;
+            stopped = snapshotter;
+            snapshotter = null;
+        }
+        if (stopped == null) {
+            return;
+        }
+        stopped.shutdown();
+        try {
+            stopped.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void loadDVDsFromExternal() throws DVDLibraryDaoException {
+        try {
+            super.loadDVDsFromExternal();
+            savedMutationCount = mutationCount.get();
+        } finally {
+            loadAttempted = true;
+            if (snapshotsStarted) {
+                startSnapshots();
+            }
+        }
+    }
+
+    @Override
+    public Optional<DVD> addDVD(DVD subject) {
+        return counted(super.addDVD(subject));
+    }
+
+    @Override
+    public Optional<DVD> removeDVD(String title) {
+        return counted(super.removeDVD(title));
+    }
+
+    @Override
+    public Optional<DVD> saveDVD(DVD modifiedDVD) {
+        return counted(super.saveDVD(modifiedDVD));
+    }
+
+    @Override
+    public Optional<DVD> replaceDVD(DVD expectedDVD, DVD modifiedDVD) {
+        return counted(super.replaceDVD(expectedDVD, modifiedDVD));
+    }
+
+    /**
+     * Saves a snapshot of the collection as it is when this is called.
+     * Mutations made while it is being written carry on unhindered
+     *
+     * @throws DVDLibraryDaoException
+     */
+    @Override
+    public synchronized void saveDVDsToExternal() throws DVDLibraryDaoException {
+        // counted before the snapshot is taken, so it holds at least these
+        long mutations = mutationCount.get();
+        super.saveDVDsToExternal();
+        savedMutationCount = mutations;
+    }
+
+    private Optional<DVD> counted(Optional<DVD> outcome) {
+        if (outcome.isEmpty()) {
+            return outcome;
+        }
+        long mutations = mutationCount.incrementAndGet();
+        if (snapshotMutations > 0
+            && mutations - savedMutationCount >= snapshotMutations
+            && snapshotQueued.compareAndSet(false, true)) {
+            // never waits for the lock, which is held while saving
+            ScheduledExecutorService scheduled = snapshotter;
+            try {
+                if (scheduled == null) {
+                    snapshotQueued.set(false);
+                } else {
+                    scheduled.execute(this::snapshot);
+                }
+            } catch (RejectedExecutionException ex) {
+                snapshotQueued.set(false);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Saves a snapshot if there are mutations the latest one lacks
+     */
+    private void snapshot() {
+        snapshotQueued.set(false);
+        if (mutationCount.get() == savedMutationCount) {
+            return;
+        }
+        try {
+            saveDVDsToExternal();
+            snapshotFailure = null;
+            snapshotCount.incrementAndGet();
+        } catch (DVDLibraryDaoException ex) {
+            snapshotFailure = ex;
+        }
+    }
+
+    /**
+     * A ConcurrentMap over a PersistentDVDMap that each mutation replaces
+     * under a lock. Its values and entries are those of the snapshot
+     * current when they are obtained
+     */
+    private static class CopyOnWriteDVDMap extends AbstractMap<String, DVD>
+        implements ConcurrentMap<String, DVD> {
+        private volatile PersistentDVDMap snapshot = PersistentDVDMap.EMPTY;
+
+        @Override
+        public int size() {
+            return snapshot.size();
+        }
+
+        @Override
+        public DVD get(Object title) {
+            return title instanceof String ? snapshot.get((String) title) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object title) {
+            return get(title) != null;
+        }
+
+        @Override
+        public synchronized DVD put(String title, DVD dvd) {
+            checkTitle(title, dvd);
+            DVD previous = snapshot.get(title);
+            snapshot = snapshot.put(dvd);
+            return previous;
+        }
+
+        @Override
+        public synchronized DVD putIfAbsent(String title, DVD dvd) {
+            checkTitle(title, dvd);
+            DVD previous = snapshot.get(title);
+            if (previous == null) {
+                snapshot = snapshot.put(dvd);
+            }
+            return previous;
+        }
+
+        @Override
+        public synchronized DVD remove(Object title) {
+            DVD previous = get(title);
+            if (previous != null) {
+                snapshot = snapshot.remove((String) title);
+            }
+            return previous;
+        }
+
+        @Override
+        public synchronized boolean remove(Object title, Object dvd) {
+            DVD previous = get(title);
+            if (previous == null || !previous.equals(dvd)) {
+                return false;
+            }
+            snapshot = snapshot.remove((String) title);
+            return true;
+        }
+
+        @Override
+        public synchronized DVD replace(String title, DVD dvd) {
+            checkTitle(title, dvd);
+            DVD previous = snapshot.get(title);
+            if (previous != null) {
+                snapshot = snapshot.put(dvd);
+            }
+            return previous;
+        }
+
+        @Override
+        public synchronized boolean replace(String title, DVD expected, DVD dvd) {
+            checkTitle(title, dvd);
+            DVD previous = snapshot.get(title);
+            if (previous == null || !previous.equals(expected)) {
+                return false;
+            }
+            snapshot = snapshot.put(dvd);
+            return true;
+        }
+
+        @Override
+        public synchronized void clear() {
+            snapshot = PersistentDVDMap.EMPTY;
+        }
+
+        @Override
+        public Collection<DVD> values() {
+            PersistentDVDMap values = snapshot;
+            return new AbstractCollection<DVD>() {
+                @Override
+                public Iterator<DVD> iterator() {
+                    return values.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return values.size();
+                }
+
+                @Override
+                public Spliterator<DVD> spliterator() {
+                    return values.spliterator();
+                }
+            };
+        }
+
+        @Override
+        public Set<Map.Entry<String, DVD>> entrySet() {
+            PersistentDVDMap entries = snapshot;
+            return new AbstractSet<Map.Entry<String, DVD>>() {
+                @Override
+                public Iterator<Map.Entry<String, DVD>> iterator() {
+                    Iterator<DVD> dvds = entries.iterator();
+                    return new Iterator<Map.Entry<String, DVD>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return dvds.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, DVD> next() {
+                            DVD dvd = dvds.next();
+                            return new AbstractMap.SimpleImmutableEntry<>(dvd.getTitle(), dvd);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+            };
+        }
+
+        private static void checkTitle(String title, DVD dvd) {
+            if (!title.equals(dvd.getTitle())) {
+                throw new IllegalArgumentException(
+                    "DVD titled " + dvd.getTitle() + " cannot be held under " + title
+                );
+            }
+        }
+    }
+}
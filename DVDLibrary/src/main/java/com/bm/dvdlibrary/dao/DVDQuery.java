@@ -0,0 +1,158 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Describe which DVDs a search should find
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.time.LocalDate;
+
+/**
+ * Criteria that DVDs must all meet to be found by
+ * DVDLibraryDao.findDVDs(), e.g.
+ *
+ * new DVDQuery()
+ *     .mpaaRating(MpaaRating.R)
+ *     .studio("Shaw Brothers Studio")
+ *     .releasedBetween(LocalDate.of(1975, 1, 1), LocalDate.of(1980, 12, 31))
+ *
+ * Criteria that are never given match every DVD
+ *
+ * @author agent
+ */
+public class DVDQuery {
+    private String directorName;
+    private String studio;
+    private MpaaRating mpaaRating;
+    private int minReleaseEpochDay = Integer.MIN_VALUE;
+    private int maxReleaseEpochDay = Integer.MAX_VALUE;
+    private int minRating = Integer.MIN_VALUE;
+    private int maxRating = Integer.MAX_VALUE;
+
+    /**
+     * Only matches DVDs by exactly this director
+     *
+     * @param directorName
+     * @return This query
+     */
+    public DVDQuery directorName(String directorName) {
+        this.directorName = directorName;
+        return this;
+    }
+
+    /**
+     * Only matches DVDs from exactly this studio
+     *
+     * @param studio
+     * @return This query
+     */
+    public DVDQuery studio(String studio) {
+        this.studio = studio;
+        return this;
+    }
+
+    /**
+     * Only matches DVDs with this MPAA rating
+     *
+     * @param mpaaRating
+     * @return This query
+     */
+    public DVDQuery mpaaRating(MpaaRating mpaaRating) {
+        this.mpaaRating = mpaaRating;
+        return this;
+    }
+
+    /**
+     * Only matches DVDs released between these dates, inclusive
+     *
+     * @param from
+     * @param to
+     * @return This query
+     */
+    public DVDQuery releasedBetween(LocalDate from, LocalDate to) {
+        this.minReleaseEpochDay = (int) Math.max(from.toEpochDay(), Integer.MIN_VALUE);
+        this.maxReleaseEpochDay = (int) Math.min(to.toEpochDay(), Integer.MAX_VALUE);
+        return this;
+    }
+
+    /**
+     * Only matches DVDs whose user rating lies between these values, inclusive
+     *
+     * @param min
+     * @param max
+     * @return This query
+     */
+    public DVDQuery ratingBetween(int min, int max) {
+        this.minRating = min;
+        this.maxRating = max;
+        return this;
+    }
+
+    public String getDirectorName() {
+        return directorName;
+    }
+
+    public String getStudio() {
+        return studio;
+    }
+
+    public MpaaRating getMpaaRating() {
+        return mpaaRating;
+    }
+
+    public int getMinReleaseEpochDay() {
+        return minReleaseEpochDay;
+    }
+
+    public int getMaxReleaseEpochDay() {
+        return maxReleaseEpochDay;
+    }
+
+    public int getMinRating() {
+        return minRating;
+    }
+
+    public int getMaxRating() {
+        return maxRating;
+    }
+
+    /**
+     * Checks whether the release date is restricted by this query
+     *
+     * @return The aforementioned check
+     */
+    public boolean hasReleaseRange() {
+        return minReleaseEpochDay != Integer.MIN_VALUE
+            || maxReleaseEpochDay != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether the user rating is restricted by this query
+     *
+     * @return The aforementioned check
+     */
+    public boolean hasRatingRange() {
+        return minRating != Integer.MIN_VALUE || maxRating != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether the DVD meets every criterion of this query
+     *
+     * @param dvd
+     * @return The aforementioned check
+     */
+    public boolean matches(DVD dvd) {
+        return (directorName == null || directorName.equals(dvd.getDirectorName()))
+            && (studio == null || studio.equals(dvd.getStudio()))
+            && (mpaaRating == null || mpaaRating == dvd.getMpaaRating())
+            && minReleaseEpochDay <= dvd.getReleaseEpochDay()
+            && dvd.getReleaseEpochDay() <= maxReleaseEpochDay
+            && minRating <= dvd.getRating()
+            && dvd.getRating() <= maxRating;
+    }
+}
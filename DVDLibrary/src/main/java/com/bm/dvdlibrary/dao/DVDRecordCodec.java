@@ -0,0 +1,253 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Parse and format "::" delimited DVD records
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Converts between DVDs and the "::" delimited records of the text
+ * representation of the collection.
+ *
+ * Records are tokenized by hand directly from bytes, so parsing a record
+ * allocates nothing besides the DVD itself and its Strings.
+ *
+ * Instances hold reusable scratch space, so they are not thread-safe
+ *
+ * @author agent
+ */
+public class DVDRecordCodec {
+    /**
+     * The number of fields in a complete record; the last field (the note)
+     * may be missing entirely
+     */
+    private static final int FIELD_COUNT = 9;
+    private static final int NOTE_FIELD = FIELD_COUNT - 1;
+    private static final byte COLON = ':';
+    private static final byte CR = '\r';
+    private static final String DELIMITER = "::";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final MpaaRating[] MPAA_RATINGS = MpaaRating.values();
+    private static final byte[][] MPAA_LABELS = new byte[MPAA_RATINGS.length][];
+
+    static {
+        for (int i = 0; i < MPAA_RATINGS.length; i++) {
+            MPAA_LABELS[i] = MPAA_RATINGS[i].getLabel().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final int[] fieldStarts = new int[FIELD_COUNT];
+    private final int[] fieldEnds = new int[FIELD_COUNT];
+    private byte[] scratch = new byte[256];
+    private final DVD.Builder builder = DVD.builder("");
+    private String lastError;
+
+    /**
+     * Parses the record held in the given bytes, between start (inclusive)
+     * and end (exclusive). A trailing carriage return is ignored.
+     *
+     * If the record is malformed, null is returned and the reason can be
+     * obtained from getLastError()
+     *
+     * @param buf
+     * @param start
+     * @param end
+     * @return The parsed DVD, or null if the record is malformed
+     */
+    public DVD parse(ByteBuffer buf, int start, int end) {
+        lastError = null;
+        if (end > start && buf.get(end - 1) == CR) {
+            end--;
+        }
+
+        int field = 0;
+        fieldStarts[0] = start;
+        int i = start;
+        // everything after the eighth delimiter belongs to the note
+        while (field < NOTE_FIELD && i < end - 1) {
+            if (buf.get(i) == COLON && buf.get(i + 1) == COLON) {
+                fieldEnds[field] = i;
+                field++;
+                fieldStarts[field] = i + 2;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        fieldEnds[field] = end;
+        if (field < NOTE_FIELD - 1) {
+            lastError = "expected at least " + NOTE_FIELD + " fields but found "
+                + (field + 1);
+            return null;
+        }
+
+        int year = parseInt(buf, 1);
+        int month = parseInt(buf, 2);
+        int day = parseInt(buf, 3);
+        int rating = parseInt(buf, 7);
+        MpaaRating mpaaRating = parseMpaaRating(buf);
+        if (lastError != null) {
+            return null;
+        }
+        if (rating > Byte.MAX_VALUE) {
+            lastError = "rating " + rating + " is out of range";
+            return null;
+        }
+
+        int releaseEpochDay;
+        try {
+            releaseEpochDay = Math.toIntExact(LocalDate.of(year, month, day).toEpochDay());
+        } catch (DateTimeException | ArithmeticException ex) {
+            lastError = "invalid date " + year + "-" + month + "-" + day;
+            return null;
+        }
+
+        return builder
+            .title(decode(buf, 0))
+            .releaseEpochDay(releaseEpochDay)
+            .mpaaRating(mpaaRating)
+            .directorName(decode(buf, 5))
+            .studio(decode(buf, 6))
+            .rating(rating)
+            // notes in record may be left empty or omitted
+            .note(field == NOTE_FIELD ? decode(buf, NOTE_FIELD) : "")
+            .build();
+    }
+
+    /**
+     * Obtains the reason the last call to parse() rejected its record
+     *
+     * @return The aforementioned reason, or null if the record was valid
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Parses a nonnegative decimal int held in the given field, recording an
+     * error if it is not one
+     */
+    private int parseInt(ByteBuffer buf, int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        if (start == end || end - start > 9) {
+            lastError = "field " + (field + 1) + " is not a valid number";
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                lastError = "field " + (field + 1) + " is not a valid number";
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Matches the MPAA rating field against the known labels, recording an
+     * error if it is none of them
+     */
+    private MpaaRating parseMpaaRating(ByteBuffer buf) {
+        int start = fieldStarts[4];
+        int length = fieldEnds[4] - start;
+        for (int r = 0; r < MPAA_LABELS.length; r++) {
+            byte[] label = MPAA_LABELS[r];
+            if (label.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && buf.get(start + i) == label[i]) {
+                i++;
+            }
+            if (i == length) {
+                return MPAA_RATINGS[r];
+            }
+        }
+        lastError = "field 5 is not a valid MPAA rating";
+        return null;
+    }
+
+    /**
+     * Decodes the UTF-8 text held in the given field
+     */
+    private String decode(ByteBuffer buf, int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if (buf.hasArray()) {
+            return new String(
+                buf.array(), buf.arrayOffset() + start, length,
+                StandardCharsets.UTF_8
+            );
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buf.get(start + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks that the record for the DVD would parse back into it: no field
+     * may hold a line break, and no field but the note may hold "::" or end
+     * with ':', which would run into the delimiter after it
+     *
+     * @param dvd
+     * @throws IllegalArgumentException If the DVD cannot be written as a
+     * record
+     */
+    public static void requireFormattable(DVD dvd) {
+        requireDelimitable("title", dvd.getTitle());
+        requireDelimitable("director name", dvd.getDirectorName());
+        requireDelimitable("studio", dvd.getStudio());
+        if (hasLineBreak(dvd.getNote())) {
+            throw new IllegalArgumentException("note must not contain line breaks");
+        }
+    }
+
+    private static void requireDelimitable(String field, String value) {
+        if (value.contains(DELIMITER) || value.endsWith(":") || hasLineBreak(value)) {
+            throw new IllegalArgumentException(
+                field + " must not contain \"::\" or line breaks, or end with ':'"
+            );
+        }
+    }
+
+    private static boolean hasLineBreak(String value) {
+        return value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    }
+
+    /**
+     * Appends the record for the DVD, followed by a line separator
+     *
+     * @param dvd
+     * @param out
+     */
+    public static void format(DVD dvd, StringBuilder out) {
+        LocalDate releaseDate = dvd.getReleaseDate();
+        out.append(dvd.getTitle()).append(DELIMITER)
+            .append(releaseDate.getYear()).append(DELIMITER)
+            .append(releaseDate.getMonthValue()).append(DELIMITER)
+            .append(releaseDate.getDayOfMonth()).append(DELIMITER)
+            .append(dvd.getMpaaRating().getLabel()).append(DELIMITER)
+            .append(dvd.getDirectorName()).append(DELIMITER)
+            .append(dvd.getStudio()).append(DELIMITER)
+            .append(dvd.getRating()).append(DELIMITER)
+            .append(dvd.getNote())
+            .append(LINE_SEPARATOR);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Name the orders in which DVDs can be paged through
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.Comparator;
+
+/**
+ * The orders in which DVDLibraryDao.getDVDPage() can page through the
+ * collection. Every order breaks ties by title, so no two DVDs are ever
+ * equal in it, and the last DVD of a page identifies exactly where the
+ * next page starts
+ *
+ * @author agent
+ */
+public enum DVDSortKey {
+    TITLE("Title", Comparator.comparing(DVD::getTitle)),
+    RELEASE_DATE("Release date", Comparator.comparingInt(DVD::getReleaseEpochDay)
+        .thenComparing(DVD::getTitle)),
+    RATING("User rating", Comparator.comparingInt(DVD::getRating)
+        .thenComparing(DVD::getTitle));
+
+    private final String description;
+    private final Comparator<DVD> order;
+
+    private DVDSortKey(String description, Comparator<DVD> order) {
+        this.description = description;
+        this.order = order;
+    }
+
+    /**
+     * Obtains a description of this order fit to show the user
+     *
+     * @return The aforementioned description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Obtains a Comparator that sorts DVDs in this order
+     *
+     * @return The aforementioned Comparator
+     */
+    public Comparator<DVD> getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Hold aggregates computed over the collection
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Aggregates over the DVDs in the collection at one point in time, as
+ * obtained from DVDLibraryDao.getStatistics()
+ *
+ * @author agent
+ */
+public class DVDStatistics {
+    private final long dvdCount;
+    private final SortedMap<String, Double> averageRatingByDirector;
+    private final SortedMap<String, SortedMap<Integer, Long>> countByStudioAndDecade;
+    private final Map<MpaaRating, SortedMap<Integer, Long>> ratingDistributionByMpaaRating;
+
+    DVDStatistics(
+        long dvdCount,
+        SortedMap<String, Double> averageRatingByDirector,
+        SortedMap<String, SortedMap<Integer, Long>> countByStudioAndDecade,
+        Map<MpaaRating, SortedMap<Integer, Long>> ratingDistributionByMpaaRating
+    ) {
+        this.dvdCount = dvdCount;
+        this.averageRatingByDirector = Collections.unmodifiableSortedMap(averageRatingByDirector);
+        this.countByStudioAndDecade = Collections.unmodifiableSortedMap(countByStudioAndDecade);
+        this.ratingDistributionByMpaaRating =
+            Collections.unmodifiableMap(ratingDistributionByMpaaRating);
+    }
+
+    /**
+     * Obtains the number of DVDs in the collection
+     *
+     * @return The aforementioned number
+     */
+    public long getDVDCount() {
+        return dvdCount;
+    }
+
+    /**
+     * Obtains the average user rating of the DVDs by each director
+     *
+     * @return A Map from director to average rating, sorted by director
+     */
+    public SortedMap<String, Double> getAverageRatingByDirector() {
+        return averageRatingByDirector;
+    }
+
+    /**
+     * Obtains the number of DVDs from each studio released in each decade,
+     * where a decade is named by its first year, e.g. 1970
+     *
+     * @return A Map from studio to a Map from decade to count, both sorted
+     */
+    public SortedMap<String, SortedMap<Integer, Long>> getCountByStudioAndDecade() {
+        return countByStudioAndDecade;
+    }
+
+    /**
+     * Obtains how many DVDs of each MPAA rating have each user rating
+     *
+     * @return A Map from MPAA rating to a Map from user rating to count,
+     * both sorted, leaving out ratings no DVD has
+     */
+    public Map<MpaaRating, SortedMap<Integer, Long>> getRatingDistributionByMpaaRating() {
+        return ratingDistributionByMpaaRating;
+    }
+}
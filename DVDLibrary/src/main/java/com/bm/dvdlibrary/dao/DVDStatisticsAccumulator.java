@@ -0,0 +1,190 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Accumulate group-by aggregates over DVDs
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Running totals from which DVDStatistics are produced: the count and
+ * rating sum per director, the count per studio per decade, and the count
+ * per rating per MPAA rating, all held in primitive arrays.
+ *
+ * Accumulators can be combined, so a parallel stream can collect into
+ * one per thread, and DVDs can be taken back out again, so an accumulator
+ * registered as a DVDIndex keeps its totals up to date as the collection
+ * changes
+ *
+ * @author agent
+ */
+public class DVDStatisticsAccumulator implements DVDIndex {
+    private static final MpaaRating[] MPAA_RATINGS = MpaaRating.values();
+    private static final int RATING_COUNT = Byte.MAX_VALUE + 1;
+
+    /**
+     * The number of DVDs and the sum of their ratings, per director
+     */
+    private final Map<String, long[]> directorRatings = new HashMap<>();
+    private final Map<String, DecadeCounts> studioDecades = new HashMap<>();
+
+    /**
+     * The number of DVDs with each rating, per MPAA rating ordinal
+     */
+    private final long[][] ratingCounts = new long[MPAA_RATINGS.length][RATING_COUNT];
+    private long dvdCount;
+
+    @Override
+    public void clear() {
+        directorRatings.clear();
+        studioDecades.clear();
+        for (long[] counts : ratingCounts) {
+            Arrays.fill(counts, 0);
+        }
+        dvdCount = 0;
+    }
+
+    @Override
+    public void add(DVD dvd) {
+        update(dvd, 1);
+    }
+
+    @Override
+    public void remove(DVD dvd) {
+        update(dvd, -1);
+    }
+
+    /**
+     * Adds the totals of another accumulator into this one
+     *
+     * @param other
+     */
+    public void combine(DVDStatisticsAccumulator other) {
+        other.directorRatings.forEach((director, totals) -> {
+            long[] mine = directorRatings.computeIfAbsent(director, key -> new long[2]);
+            mine[0] += totals[0];
+            mine[1] += totals[1];
+        });
+        other.studioDecades.forEach((studio, counts) ->
+            studioDecades.computeIfAbsent(studio, key -> new DecadeCounts()).addAll(counts)
+        );
+        for (int r = 0; r < ratingCounts.length; r++) {
+            for (int rating = 0; rating < RATING_COUNT; rating++) {
+                ratingCounts[r][rating] += other.ratingCounts[r][rating];
+            }
+        }
+        dvdCount += other.dvdCount;
+    }
+
+    /**
+     * Produces the statistics for the DVDs accumulated so far
+     *
+     * @return The aforementioned statistics
+     */
+    public DVDStatistics snapshot() {
+        SortedMap<String, Double> averageRatings = new TreeMap<>();
+        directorRatings.forEach((director, totals) ->
+            averageRatings.put(director, (double) totals[1] / totals[0])
+        );
+
+        SortedMap<String, SortedMap<Integer, Long>> studioCounts = new TreeMap<>();
+        studioDecades.forEach((studio, counts) -> studioCounts.put(studio, counts.toMap()));
+
+        Map<MpaaRating, SortedMap<Integer, Long>> distributions = new TreeMap<>();
+        for (int r = 0; r < ratingCounts.length; r++) {
+            SortedMap<Integer, Long> distribution = new TreeMap<>();
+            for (int rating = 0; rating < RATING_COUNT; rating++) {
+                if (ratingCounts[r][rating] != 0) {
+                    distribution.put(rating, ratingCounts[r][rating]);
+                }
+            }
+            if (!distribution.isEmpty()) {
+                distributions.put(MPAA_RATINGS[r], distribution);
+            }
+        }
+        return new DVDStatistics(dvdCount, averageRatings, studioCounts, distributions);
+    }
+
+    private void update(DVD dvd, int delta) {
+        long[] totals = directorRatings.computeIfAbsent(
+            dvd.getDirectorName(), key -> new long[2]
+        );
+        totals[0] += delta;
+        totals[1] += delta * dvd.getRating();
+        if (totals[0] == 0) {
+            directorRatings.remove(dvd.getDirectorName());
+        }
+
+        int decade = Math.floorDiv(
+            LocalDate.ofEpochDay(dvd.getReleaseEpochDay()).getYear(), 10
+        ) * 10;
+        DecadeCounts counts = studioDecades.computeIfAbsent(
+            dvd.getStudio(), key -> new DecadeCounts()
+        );
+        counts.add(decade, delta);
+        if (counts.total == 0) {
+            studioDecades.remove(dvd.getStudio());
+        }
+
+        ratingCounts[dvd.getMpaaRating().ordinal()][dvd.getRating()] += delta;
+        dvdCount += delta;
+    }
+
+    /**
+     * The number of DVDs released in each decade, held in an array that
+     * grows to span the earliest through the latest decade seen
+     */
+    private static class DecadeCounts {
+        private int firstDecade;
+        private long[] counts = new long[0];
+        private long total;
+
+        private void add(int decade, long delta) {
+            if (counts.length == 0) {
+                firstDecade = decade;
+                counts = new long[1];
+            } else if (decade < firstDecade) {
+                int shift = (firstDecade - decade) / 10;
+                long[] grown = new long[counts.length + shift];
+                System.arraycopy(counts, 0, grown, shift, counts.length);
+                counts = grown;
+                firstDecade = decade;
+            }
+            int slot = (decade - firstDecade) / 10;
+            if (slot >= counts.length) {
+                counts = Arrays.copyOf(counts, slot + 1);
+            }
+            counts[slot] += delta;
+            total += delta;
+        }
+
+        private void addAll(DecadeCounts other) {
+            for (int slot = 0; slot < other.counts.length; slot++) {
+                if (other.counts[slot] != 0) {
+                    add(other.firstDecade + slot * 10, other.counts[slot]);
+                }
+            }
+        }
+
+        private SortedMap<Integer, Long> toMap() {
+            SortedMap<Integer, Long> map = new TreeMap<>();
+            for (int slot = 0; slot < counts.length; slot++) {
+                if (counts[slot] != 0) {
+                    map.put(firstDecade + slot * 10, counts[slot]);
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Publish a Stream of DVDs as fast as subscribers request them
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A Flow.Publisher that opens a fresh Stream of DVDs for each subscriber
+ * and pulls from it only as many DVDs as the subscriber has requested.
+ *
+ * Signals to a subscriber are delivered on the given executor, one at a
+ * time, and the Stream is closed once it is exhausted, fails or the
+ * subscription is cancelled
+ *
+ * @author agent
+ */
+class DVDStreamPublisher implements Flow.Publisher<DVD> {
+    private final Supplier<Stream<DVD>> source;
+    private final Executor executor;
+
+    /**
+     * Creates a new instance of this class which publishes the Streams
+     * obtained from the source
+     *
+     * @param source
+     * @param executor
+     */
+    DVDStreamPublisher(Supplier<Stream<DVD>> source, Executor executor) {
+        this.source = source;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DVD> subscriber) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+    }
+
+    private class StreamSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super DVD> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * The number of times draining was asked for while it may have been
+         * running, so only one thread drains at a time
+         */
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // only touched while draining
+        private Stream<DVD> stream;
+        private Iterator<DVD> iterator;
+        private boolean finished;
+
+        StreamSubscription(Flow.Subscriber<? super DVD> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(
+                    "Requested " + n + " DVDs, but must request at least one"
+                );
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (drainRequests.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!finished) {
+                    emit();
+                }
+                missed = drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Delivers as many DVDs as are requested and available, then
+         * completes the subscriber if there are none left
+         */
+        private void emit() {
+            try {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                if (iterator == null) {
+                    stream = source.get();
+                    iterator = stream.iterator();
+                }
+                while (demand.get() > 0 && !cancelled && iterator.hasNext()) {
+                    DVD dvd = iterator.next();
+                    demand.decrementAndGet();
+                    subscriber.onNext(dvd);
+                }
+                if (!cancelled && !iterator.hasNext()) {
+                    finish();
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException ex) {
+                if (!finished) {
+                    finish();
+                    subscriber.onError(ex);
+                }
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+}
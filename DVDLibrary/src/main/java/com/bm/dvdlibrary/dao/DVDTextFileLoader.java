@@ -0,0 +1,340 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Stream DVD records out of the "::" delimited text file
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads the "::" delimited text file through a buffered NIO channel,
+ * handing each well-formed record to a consumer in file order.
+ *
+ * Malformed records are skipped and remembered by line number rather
+ * than aborting the whole load.
+ *
+ * Large files can also be split into line-aligned byte ranges that are
+ * memory-mapped and parsed on a fork-join pool
+ *
+ * @author agent
+ */
+public class DVDTextFileLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte NEWLINE = '\n';
+
+    /**
+     * Files smaller than this are always read sequentially, since splitting
+     * them costs more than it saves
+     */
+    private static final long MIN_PARALLEL_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 26;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Only this many malformed records are described individually; the rest
+     * are only counted
+     */
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final DVDRecordCodec codec = new DVDRecordCodec();
+    private final List<Long> errorLines = new ArrayList<>();
+    private final List<String> errorReasons = new ArrayList<>();
+    private int errorCount;
+
+    /**
+     * Reads every record of the source file, in order, into the sink
+     *
+     * @param source
+     * @param sink
+     * @throws IOException If the file cannot be read
+     */
+    public void load(Path source, Consumer<DVD> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+            long lineNumber = 0;
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                endOfFile = channel.read(buf) < 0;
+                buf.flip();
+
+                int lineStart = 0;
+                int limit = buf.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (buf.get(i) == NEWLINE) {
+                        parseLine(buf, lineStart, i, ++lineNumber, sink);
+                        lineStart = i + 1;
+                    }
+                }
+                if (endOfFile && lineStart < limit) {
+                    parseLine(buf, lineStart, limit, ++lineNumber, sink);
+                    lineStart = limit;
+                }
+
+                // keep the partial line at the end for the next read
+                buf.position(lineStart);
+                if (lineStart == 0 && buf.limit() == buf.capacity()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buf.capacity() * 2);
+                    larger.put(buf);
+                    buf = larger;
+                } else {
+                    buf.compact();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every record of the source file into the sink, parsing
+     * line-aligned ranges of the file on up to the given number of threads.
+     *
+     * The sink still receives the records in file order, on the calling
+     * thread, so the outcome is identical to that of load()
+     *
+     * @param source
+     * @param parallelism
+     * @param sink
+     * @throws IOException If the file cannot be read
+     */
+    public void loadParallel(Path source, int parallelism, Consumer<DVD> sink)
+        throws IOException {
+        List<ChunkResult> results = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (parallelism <= 1 || size < MIN_PARALLEL_SIZE) {
+                load(source, sink);
+                return;
+            }
+
+            long[] bounds = findChunkBounds(channel, size, parallelism);
+            List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(ForkJoinTask.adapt(() -> parseChunk(channel, start, end)));
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (ForkJoinTask<ChunkResult> task : tasks) {
+                    pool.execute(task);
+                }
+                for (ForkJoinTask<ChunkResult> task : tasks) {
+                    results.add(task.join());
+                }
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        // merging in file order keeps the last duplicate title, as load() does
+        long lineOffset = 0;
+        for (ChunkResult result : results) {
+            for (DVD dvd : result.dvds) {
+                sink.accept(dvd);
+            }
+            DVDTextFileLoader chunkLoader = result.loader;
+            for (int i = 0; i < chunkLoader.errorLines.size(); i++) {
+                recordError(
+                    lineOffset + chunkLoader.errorLines.get(i),
+                    chunkLoader.errorReasons.get(i)
+                );
+            }
+            errorCount += chunkLoader.errorCount - chunkLoader.errorLines.size();
+            lineOffset += result.lineCount;
+        }
+    }
+
+    /**
+     * Splits the file into ranges that each start at the beginning of a line
+     *
+     * @return The offsets at which each range starts, followed by the size
+     * of the file
+     */
+    private long[] findChunkBounds(FileChannel channel, long size, int parallelism)
+        throws IOException {
+        long chunkCount = (long) parallelism * CHUNKS_PER_THREAD;
+        long chunkSize = Math.min(
+            MAX_CHUNK_SIZE,
+            Math.max(MIN_PARALLEL_SIZE, (size + chunkCount - 1) / chunkCount)
+        );
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long next = chunkSize;
+        while (next < size) {
+            long boundary = findLineStart(channel, next, size, probe);
+            if (boundary >= size) {
+                break;
+            }
+            bounds.add(boundary);
+            next = boundary + chunkSize;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the start of the first line beginning at or after the position
+     */
+    private long findLineStart(
+        FileChannel channel, long position, long size, ByteBuffer probe
+    ) throws IOException {
+        long offset = position - 1;
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == NEWLINE) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end) {
+        ByteBuffer chunk;
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ChunkResult result = new ChunkResult();
+        result.lineCount = result.loader.loadRegion(
+            chunk, 0, chunk.limit(), result.dvds::add
+        );
+        return result;
+    }
+
+    /**
+     * Parses the records held in a region of a buffer, between start
+     * (inclusive) and end (exclusive), which must begin at the start of a
+     * line. Line numbers reported for malformed records are relative to
+     * the start of the region
+     *
+     * @return The number of lines in the region
+     */
+    private long loadRegion(ByteBuffer buf, int start, int end, Consumer<DVD> sink) {
+        long lineNumber = 0;
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            if (buf.get(i) == NEWLINE) {
+                parseLine(buf, lineStart, i, ++lineNumber, sink);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < end) {
+            parseLine(buf, lineStart, end, ++lineNumber, sink);
+        }
+        return lineNumber;
+    }
+
+    private void parseLine(
+        ByteBuffer buf, int start, int end, long lineNumber, Consumer<DVD> sink
+    ) {
+        if (isBlank(buf, start, end)) {
+            return;
+        }
+        DVD dvd = codec.parse(buf, start, end);
+        if (dvd == null) {
+            recordError(lineNumber, codec.getLastError());
+        } else {
+            sink.accept(dvd);
+        }
+    }
+
+    private boolean isBlank(ByteBuffer buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buf.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordError(long lineNumber, String reason) {
+        errorCount++;
+        if (errorLines.size() < MAX_REPORTED_ERRORS) {
+            errorLines.add(lineNumber);
+            errorReasons.add(reason);
+        }
+    }
+
+    /**
+     * Obtains descriptions of the malformed records skipped so far
+     *
+     * @return The aforementioned descriptions, each naming its line number
+     */
+    public List<String> getErrors() {
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < errorLines.size(); i++) {
+            errors.add("line " + errorLines.get(i) + ": " + errorReasons.get(i));
+        }
+        return errors;
+    }
+
+    /**
+     * Obtains the number of malformed records skipped so far
+     *
+     * @return The aforementioned number
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Summarizes the malformed records skipped so far
+     *
+     * @return The aforementioned summary
+     */
+    public String describeErrors() {
+        StringBuilder description = new StringBuilder()
+            .append("Skipped ").append(errorCount).append(" malformed record(s)");
+        String separator = ": ";
+        for (String error : getErrors()) {
+            description.append(separator).append(error);
+            separator = "; ";
+        }
+        if (errorCount > errorLines.size()) {
+            description.append("; ...");
+        }
+        return description.toString();
+    }
+
+    /**
+     * The outcome of parsing one range of the file
+     */
+    private static class ChunkResult {
+        private final DVDTextFileLoader loader = new DVDTextFileLoader();
+        private final List<DVD> dvds = new ArrayList<>();
+        private long lineCount;
+    }
+}
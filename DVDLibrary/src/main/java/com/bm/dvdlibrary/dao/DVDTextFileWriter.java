@@ -0,0 +1,133 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Write DVD records out to the "::" delimited text file
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes DVDs to the "::" delimited text file through a channel.
+ *
+ * Records are formatted into one reusable buffer and encoded in large
+ * blocks, rather than through a Formatter per record
+ *
+ * @author agent
+ */
+public class DVDTextFileWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final StringBuilder text = new StringBuilder(BUFFER_SIZE + 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE * 4);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    /**
+     * Replaces the target file with the records of the given DVDs, through
+     * a temporary file that is forced to disk and renamed over the target
+     *
+     * @param target
+     * @param dvds
+     * @return The number of bytes written
+     * @throws IOException If the records cannot be written; the target is
+     * left untouched in that case
+     */
+    public long writeAtomically(Path target, Iterable<DVD> dvds) throws IOException {
+        return AtomicFiles.write(target, channel -> writeTo(channel, dvds));
+    }
+
+    /**
+     * Overwrites the target file in place with the records of the given DVDs
+     *
+     * @param target
+     * @param dvds
+     * @return The number of bytes written
+     * @throws IOException If the records cannot be written
+     */
+    public long write(Path target, Iterable<DVD> dvds) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+            target,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            writeTo(channel, dvds);
+            return channel.size();
+        }
+    }
+
+    /**
+     * Writes the records of the given DVDs to the channel
+     *
+     * @param channel
+     * @param dvds
+     * @throws IOException If the records cannot be written
+     */
+    public void writeTo(FileChannel channel, Iterable<DVD> dvds) throws IOException {
+        text.setLength(0);
+        for (DVD dvd : dvds) {
+            append(channel, dvd);
+        }
+        flush(channel);
+    }
+
+    /**
+     * Buffers the record of the DVD, writing the buffer to the channel
+     * once it is full. Once the last DVD is appended, flush() must be
+     * called to write whatever remains buffered
+     *
+     * @param channel
+     * @param dvd
+     * @throws IOException If the buffer cannot be written
+     */
+    public void append(FileChannel channel, DVD dvd) throws IOException {
+        DVDRecordCodec.format(dvd, text);
+        if (text.length() >= BUFFER_SIZE) {
+            flush(channel);
+        }
+    }
+
+    /**
+     * Writes the records buffered so far to the channel
+     *
+     * @param channel
+     * @throws IOException If the buffer cannot be written
+     */
+    public void flush(FileChannel channel) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isOverflow() || !chars.hasRemaining()) {
+                drain(channel);
+            }
+        } while (result.isOverflow());
+        encoder.flush(bytes);
+        drain(channel);
+        text.setLength(0);
+    }
+
+    private void drain(FileChannel channel) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,437 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Full-text search over the notes and names of DVDs
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An inverted index over the words in the note, title, director and studio
+ * of each DVD, ranking searches with BM25.
+ *
+ * Each word maps to a posting list of (document, term frequency) pairs,
+ * compressed as delta-encoded variable-length ints. Documents are numbered
+ * in the order they are added, so postings are only ever appended to.
+ * Removed documents are only marked as such, and the postings are
+ * compacted once they make up most of the index.
+ *
+ * If given a file, the index is saved there along with a fingerprint of
+ * the collection it describes, so it can be restored rather than rebuilt
+ * when the same collection is loaded again
+ *
+ * @author agent
+ */
+public class DVDTextIndex implements DVDIndex {
+    private static final int MAGIC = 0x44564449; // "DVDI"
+    private static final int VERSION = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private final Path indexFile;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private String[] docTitles = new String[16];
+    private int[] docLengths = new int[16];
+    private int docCount;
+    private int liveDocCount;
+    private long liveLength;
+    private long fingerprint;
+
+    /**
+     * Creates a new index that is not saved anywhere
+     */
+    public DVDTextIndex() {
+        this(null);
+    }
+
+    /**
+     * Creates a new index that is saved to, and restored from, the given file
+     *
+     * @param indexFile
+     */
+    public DVDTextIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    @Override
+    public void clear() {
+        postings.clear();
+        docIds.clear();
+        docTitles = new String[16];
+        docLengths = new int[16];
+        docCount = 0;
+        liveDocCount = 0;
+        liveLength = 0;
+        fingerprint = 0;
+    }
+
+    @Override
+    public void add(DVD dvd) {
+        Map<String, Integer> frequencies = termFrequencies(dvd);
+        int docId = docCount++;
+        if (docId == docTitles.length) {
+            docTitles = Arrays.copyOf(docTitles, docId * 2);
+            docLengths = Arrays.copyOf(docLengths, docId * 2);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new PostingList())
+                .append(docId, term.getValue());
+            length += term.getValue();
+        }
+        docTitles[docId] = dvd.getTitle();
+        docLengths[docId] = length;
+        docIds.put(dvd.getTitle(), docId);
+        liveDocCount++;
+        liveLength += length;
+        fingerprint += fingerprintOf(dvd);
+    }
+
+    @Override
+    public void remove(DVD dvd) {
+        Integer docId = docIds.remove(dvd.getTitle());
+        if (docId == null) {
+            return;
+        }
+        for (String term : termFrequencies(dvd).keySet()) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.liveDocFreq--;
+            }
+        }
+        docTitles[docId] = null;
+        liveDocCount--;
+        liveLength -= docLengths[docId];
+        fingerprint -= fingerprintOf(dvd);
+
+        int deleted = docCount - liveDocCount;
+        if (deleted > MIN_COMPACTION_SIZE && deleted > liveDocCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Finds up to the given number of titles of DVDs containing the words
+     * of the search text, best BM25 score first and then by title
+     *
+     * @param text
+     * @param limit
+     * @return The aforementioned titles
+     */
+    public List<String> search(String text, int limit) {
+        Map<Integer, double[]> scores = new HashMap<>();
+        double averageLength = liveDocCount == 0 ? 1 : (double) liveLength / liveDocCount;
+        for (String term : tokenize(text).keySet()) {
+            PostingList list = postings.get(term);
+            if (list == null || list.liveDocFreq <= 0) {
+                continue;
+            }
+            double idf = Math.log(
+                1 + (liveDocCount - list.liveDocFreq + 0.5) / (list.liveDocFreq + 0.5)
+            );
+            list.forEach((docId, frequency) -> {
+                if (docTitles[docId] == null) {
+                    return;
+                }
+                double norm = K1 * (1 - B + B * docLengths[docId] / averageLength);
+                double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                scores.computeIfAbsent(docId, key -> new double[1])[0] += score;
+            });
+        }
+
+        // ties go by title rather than by document number, which compaction
+        // changes
+        PriorityQueue<Map.Entry<Integer, double[]>> best = new PriorityQueue<>(
+            (a, b) -> {
+                int byScore = Double.compare(a.getValue()[0], b.getValue()[0]);
+                return byScore != 0
+                    ? byScore : docTitles[b.getKey()].compareTo(docTitles[a.getKey()]);
+            }
+        );
+        for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        String[] titles = new String[best.size()];
+        for (int i = titles.length - 1; i >= 0; i--) {
+            titles[i] = docTitles[best.poll().getKey()];
+        }
+        return Arrays.asList(titles);
+    }
+
+    /**
+     * Restores the index from its file, if that file describes exactly
+     * the given collection
+     *
+     * @param dvds
+     * @return Whether the index was restored
+     */
+    @Override
+    public boolean restore(Collection<DVD> dvds) {
+        if (indexFile == null) {
+            return false;
+        }
+        long expected = 0;
+        for (DVD dvd : dvds) {
+            expected += fingerprintOf(dvd);
+        }
+        try {
+            return readFrom(indexFile, dvds.size(), expected);
+        } catch (IOException ex) {
+            // an unreadable index is simply rebuilt
+            clear();
+            return false;
+        }
+    }
+
+    /**
+     * Saves the index to its file, if it has one
+     *
+     * @throws IOException
+     */
+    @Override
+    public void persist() throws IOException {
+        if (indexFile == null) {
+            return;
+        }
+        if (docCount > liveDocCount) {
+            compact();
+        }
+        AtomicFiles.write(indexFile, channel -> {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16)
+            );
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(docCount);
+            for (int docId = 0; docId < docCount; docId++) {
+                out.writeUTF(docTitles[docId]);
+                out.writeInt(docLengths[docId]);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingList> term : postings.entrySet()) {
+                PostingList list = term.getValue();
+                out.writeUTF(term.getKey());
+                out.writeInt(list.liveDocFreq);
+                out.writeInt(list.lastDocId);
+                out.writeInt(list.size);
+                out.write(list.bytes, 0, list.size);
+            }
+            // flushed rather than closed, since the channel is not ours to close
+            out.flush();
+        });
+    }
+
+    private boolean readFrom(Path file, int expectedCount, long expectedFingerprint)
+        throws IOException {
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file), 1 << 16)
+        )) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                || in.readLong() != expectedFingerprint) {
+                return false;
+            }
+            int count = in.readInt();
+            if (count != expectedCount) {
+                return false;
+            }
+            clear();
+            docTitles = new String[Math.max(16, count)];
+            docLengths = new int[docTitles.length];
+            for (int docId = 0; docId < count; docId++) {
+                docTitles[docId] = in.readUTF();
+                docLengths[docId] = in.readInt();
+                docIds.put(docTitles[docId], docId);
+                liveLength += docLengths[docId];
+            }
+            docCount = count;
+            liveDocCount = count;
+            int termCount = in.readInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                PostingList list = new PostingList();
+                // only live documents are persisted, so their frequency is
+                // recounted rather than trusted
+                in.readInt();
+                list.lastDocId = in.readInt();
+                list.size = in.readInt();
+                list.bytes = new byte[Math.max(list.size, 8)];
+                in.readFully(list.bytes, 0, list.size);
+                list.forEach((docId, frequency) -> list.liveDocFreq++);
+                postings.put(term, list);
+            }
+            fingerprint = expectedFingerprint;
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Renumbers the live documents densely and drops the postings of
+     * removed ones
+     */
+    private void compact() {
+        int[] newIds = new int[docCount];
+        int next = 0;
+        for (int docId = 0; docId < docCount; docId++) {
+            if (docTitles[docId] == null) {
+                newIds[docId] = -1;
+            } else {
+                newIds[docId] = next;
+                docTitles[next] = docTitles[docId];
+                docLengths[next] = docLengths[docId];
+                docIds.put(docTitles[next], next);
+                next++;
+            }
+        }
+        Arrays.fill(docTitles, next, docCount, null);
+        docCount = next;
+
+        postings.replaceAll((term, list) -> {
+            // append() counts the live documents again
+            PostingList compacted = new PostingList();
+            list.forEach((docId, frequency) -> {
+                if (newIds[docId] >= 0) {
+                    compacted.append(newIds[docId], frequency);
+                }
+            });
+            assert compacted.liveDocFreq == list.liveDocFreq
+                : "compaction changed the document frequency of " + term;
+            return compacted;
+        });
+        postings.values().removeIf(list -> list.size == 0);
+    }
+
+    private static Map<String, Integer> termFrequencies(DVD dvd) {
+        Map<String, Integer> frequencies = tokenize(dvd.getNote());
+        tokenizeInto(dvd.getTitle(), frequencies);
+        tokenizeInto(dvd.getDirectorName(), frequencies);
+        tokenizeInto(dvd.getStudio(), frequencies);
+        return frequencies;
+    }
+
+    private static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenizeInto(text, frequencies);
+        return frequencies;
+    }
+
+    /**
+     * Splits the text into lower-case runs of letters and digits, counting
+     * how often each occurs
+     */
+    private static void tokenizeInto(String text, Map<String, Integer> frequencies) {
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                frequencies.merge(token.toString(), 1, Integer::sum);
+                token.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Hashes the indexed fields of a DVD, so that the sum over a collection
+     * identifies its contents regardless of order
+     */
+    private static long fingerprintOf(DVD dvd) {
+        long hash = dvd.getTitle().hashCode();
+        hash = hash * 31 + dvd.getNote().hashCode();
+        hash = hash * 31 + dvd.getDirectorName().hashCode();
+        hash = hash * 31 + dvd.getStudio().hashCode();
+        // splitmix64 finalizer, so that sums of similar hashes do not collide
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Receives the entries of a posting list
+     */
+    private interface PostingConsumer {
+        void accept(int docId, int frequency);
+    }
+
+    /**
+     * The (document, frequency) pairs of one term, as variable-length ints
+     * holding the gap from the previous document and the frequency
+     */
+    private static class PostingList {
+        private byte[] bytes = new byte[8];
+        private int size;
+        private int lastDocId;
+        private int liveDocFreq;
+
+        private void append(int docId, int frequency) {
+            if (size + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            putVarInt(docId - lastDocId);
+            putVarInt(frequency);
+            lastDocId = docId;
+            liveDocFreq++;
+        }
+
+        private void putVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void forEach(PostingConsumer consumer) {
+            int position = 0;
+            int docId = 0;
+            while (position < size) {
+                int gap = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = bytes[position++];
+                    gap |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                int frequency = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = bytes[position++];
+                    frequency |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                docId += gap;
+                consumer.accept(docId, frequency);
+            }
+        }
+    }
+}
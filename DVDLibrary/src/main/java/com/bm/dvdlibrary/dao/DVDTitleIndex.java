@@ -0,0 +1,233 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Find DVDs from partial or misspelled titles
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Indexes titles for prefix and typo-tolerant searches.
+ *
+ * Titles are normalized to lower case words. Prefix searches use a sorted
+ * map of the normalized titles, and of every suffix of them that starts a
+ * word, so typing "chamber" finds "The 36th Chamber of Shaolin". Fuzzy
+ * searches use an index from every trigram to the titles containing it,
+ * ranking candidates by how many trigrams they share with the search
+ *
+ * @author agent
+ */
+public class DVDTitleIndex implements DVDIndex {
+    /**
+     * Postings longer than this are not walked; candidates found through
+     * rarer trigrams are checked for such common trigrams directly instead
+     */
+    private static final int MAX_WALKED_POSTING = 2000;
+    private static final double MIN_SIMILARITY = 0.3;
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+
+    /**
+     * The normalized form of each title, padded as it is for trigrams
+     */
+    private final Map<String, String> paddedTitles = new HashMap<>();
+    private final NavigableMap<String, Set<String>> byTitle = new TreeMap<>();
+    private final NavigableMap<String, Set<String>> byWordSuffix = new TreeMap<>();
+    private final Map<String, Set<String>> byTrigram = new HashMap<>();
+
+    @Override
+    public void clear() {
+        paddedTitles.clear();
+        byTitle.clear();
+        byWordSuffix.clear();
+        byTrigram.clear();
+    }
+
+    @Override
+    public void add(DVD dvd) {
+        String title = dvd.getTitle();
+        String normalized = normalize(title);
+        paddedTitles.put(title, pad(normalized));
+        byTitle.computeIfAbsent(normalized, key -> new HashSet<>()).add(title);
+        for (String suffix : wordSuffixes(normalized)) {
+            byWordSuffix.computeIfAbsent(suffix, key -> new HashSet<>()).add(title);
+        }
+        for (String trigram : trigrams(normalized)) {
+            byTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(title);
+        }
+    }
+
+    @Override
+    public void remove(DVD dvd) {
+        String title = dvd.getTitle();
+        String padded = paddedTitles.remove(title);
+        if (padded == null) {
+            return;
+        }
+        String normalized = normalize(title);
+        removeFrom(byTitle, normalized, title);
+        for (String suffix : wordSuffixes(normalized)) {
+            removeFrom(byWordSuffix, suffix, title);
+        }
+        for (String trigram : trigrams(normalized)) {
+            removeFrom(byTrigram, trigram, title);
+        }
+    }
+
+    /**
+     * Finds up to the given number of titles resembling the search text.
+     *
+     * Titles starting with the text come first, then titles with a word
+     * starting with it, both in alphabetical order. Any remaining places go
+     * to the titles sharing the most trigrams with the text
+     *
+     * @param text
+     * @param limit
+     * @return The aforementioned titles, best match first
+     */
+    public List<String> search(String text, int limit) {
+        String normalized = normalize(text);
+        Set<String> results = new LinkedHashSet<>();
+        if (normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>(results);
+        }
+
+        addPrefixMatches(byTitle, normalized, results, limit);
+        addPrefixMatches(byWordSuffix, normalized, results, limit);
+        if (results.size() < limit) {
+            addFuzzyMatches(normalized, results, limit);
+        }
+        return new ArrayList<>(results);
+    }
+
+    private static void addPrefixMatches(
+        NavigableMap<String, Set<String>> index, String prefix,
+        Set<String> results, int limit
+    ) {
+        for (Set<String> titles : index.subMap(prefix, true, prefix + MAX_CHAR, false).values()) {
+            for (String title : titles) {
+                if (results.size() >= limit) {
+                    return;
+                }
+                results.add(title);
+            }
+        }
+    }
+
+    private void addFuzzyMatches(String normalized, Set<String> results, int limit) {
+        List<String> queryTrigrams = new ArrayList<>(new LinkedHashSet<>(trigrams(normalized)));
+        queryTrigrams.sort(Comparator.comparingInt(
+            trigram -> byTrigram.getOrDefault(trigram, Set.of()).size()
+        ));
+
+        Map<String, int[]> sharedCounts = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<String> posting = byTrigram.getOrDefault(trigram, Set.of());
+            if (posting.size() <= MAX_WALKED_POSTING || sharedCounts.isEmpty()) {
+                for (String title : posting) {
+                    sharedCounts.computeIfAbsent(title, key -> new int[1])[0]++;
+                }
+            } else {
+                for (Map.Entry<String, int[]> candidate : sharedCounts.entrySet()) {
+                    if (paddedTitles.get(candidate.getKey()).contains(trigram)) {
+                        candidate.getValue()[0]++;
+                    }
+                }
+            }
+        }
+
+        // keep the best candidates in a bounded min-heap of (score, title)
+        int queryCount = queryTrigrams.size();
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(
+            Map.Entry.comparingByValue()
+        );
+        for (Map.Entry<String, int[]> candidate : sharedCounts.entrySet()) {
+            if (results.contains(candidate.getKey())) {
+                continue;
+            }
+            int titleCount = paddedTitles.get(candidate.getKey()).length() - 2;
+            double similarity = 2.0 * candidate.getValue()[0] / (queryCount + titleCount);
+            if (similarity < MIN_SIMILARITY) {
+                continue;
+            }
+            best.add(Map.entry(candidate.getKey(), similarity));
+            if (best.size() > limit - results.size()) {
+                best.poll();
+            }
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        for (Map.Entry<String, Double> entry : ranked) {
+            results.add(entry.getKey());
+        }
+    }
+
+    /**
+     * Lower-cases the text, keeping only letters and digits, with single
+     * spaces between words
+     */
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static List<String> wordSuffixes(String normalized) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            suffixes.add(normalized.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    /**
+     * Obtains the trigrams of the normalized text, padded so that its
+     * first and last characters form trigrams of their own
+     */
+    private static List<String> trigrams(String normalized) {
+        String padded = pad(normalized);
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String pad(String normalized) {
+        return "  " + normalized + " ";
+    }
+
+    private static void removeFrom(Map<String, Set<String>> index, String key, String title) {
+        Set<String> titles = index.get(key);
+        if (titles != null && titles.remove(title) && titles.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
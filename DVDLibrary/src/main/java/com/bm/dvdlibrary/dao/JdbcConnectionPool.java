@@ -0,0 +1,109 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Reuse a bounded number of JDBC connections
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A minimal pool of JDBC connections opened through DriverManager.
+ *
+ * At most the given number of connections are lent out at once; further
+ * borrowers wait. Returned connections are kept for reuse, most recently
+ * returned first, unless they were closed or left mid-transaction
+ *
+ * @author agent
+ */
+class JdbcConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Semaphore available;
+    private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    JdbcConnectionPool(String url, String user, String password, int maxSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.available = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Lends out an idle connection, opening a new one if there is none
+     *
+     * @return The aforementioned connection, which must be given back with
+     * release()
+     * @throws SQLException If a connection cannot be opened, or the wait
+     * for one was interrupted
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool is closed");
+        }
+        try {
+            available.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", ex);
+        }
+        try {
+            Connection connection = idle.pollFirst();
+            if (connection != null) {
+                return connection;
+            }
+            return user == null
+                ? DriverManager.getConnection(url)
+                : DriverManager.getConnection(url, user, password);
+        } catch (SQLException | RuntimeException ex) {
+            available.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Takes back a connection lent out by borrow()
+     *
+     * @param connection
+     */
+    void release(Connection connection) {
+        try {
+            if (closed || connection.isClosed() || !connection.getAutoCommit()) {
+                connection.close();
+            } else {
+                idle.addFirst(connection);
+            }
+        } catch (SQLException ex) {
+            // a connection in an unknown state is simply not reused
+        } finally {
+            available.release();
+        }
+    }
+
+    /**
+     * Closes every idle connection; those still lent out are closed when
+     * they are released
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            try {
+                connection.close();
+            } catch (SQLException ex) {
+                // nothing more can be done with it
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Read the records of a JSON Lines catalogue
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a JSON Lines catalogue, in which each line holds one flat JSON
+ * object whose members are the fields of a record. Members may be strings,
+ * numbers or booleans, which are all read as text; null members are
+ * treated as missing
+ *
+ * @author agent
+ */
+class JsonLinesRecordReader implements CatalogueRecordReader {
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final Pattern NUMBER =
+        Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?");
+
+    private final BufferedReader in;
+    private final StringBuilder text = new StringBuilder();
+    private long lineNumber;
+    private String line;
+    private int pos;
+
+    JsonLinesRecordReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public CatalogueRecord next() throws IOException {
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            pos = 0;
+            skipWhitespace();
+        } while (pos == line.length());
+
+        if (lineNumber == 1 && line.charAt(0) == BYTE_ORDER_MARK) {
+            pos++;
+        }
+        try {
+            return CatalogueRecord.of(lineNumber, parseObject());
+        } catch (IllegalArgumentException ex) {
+            return CatalogueRecord.malformed(lineNumber, ex.getMessage());
+        }
+    }
+
+    /**
+     * Parses a single flat JSON object, which may span several lines
+     *
+     * @param json
+     * @return The members of the object, as text
+     * @throws IllegalArgumentException If the text is not such an object
+     */
+    static Map<String, String> parse(String json) {
+        JsonLinesRecordReader parser = new JsonLinesRecordReader(null);
+        parser.line = json;
+        parser.skipWhitespace();
+        return parser.parseObject();
+    }
+
+    private Map<String, String> parseObject() {
+        Map<String, String> fields = new HashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                String name = parseString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                String value = parseValue();
+                if (value != null) {
+                    fields.put(name, value);
+                }
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    break;
+                }
+            }
+        }
+        skipWhitespace();
+        if (pos != line.length()) {
+            throw new IllegalArgumentException("unexpected text after the object");
+        }
+        return fields;
+    }
+
+    /**
+     * Parses a member value as text, or null for a JSON null
+     */
+    private String parseValue() {
+        int c = peek();
+        if (c == '"') {
+            pos++;
+            return parseString();
+        }
+        if (c == '{' || c == '[') {
+            throw new IllegalArgumentException("nested values are not supported");
+        }
+        int start = pos;
+        while (pos < line.length() && "-+.eE0123456789truefalsn".indexOf(line.charAt(pos)) >= 0) {
+            pos++;
+        }
+        String literal = line.substring(start, pos);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || NUMBER.matcher(literal).matches()) {
+            return literal;
+        }
+        throw new IllegalArgumentException("invalid value at column " + (start + 1));
+    }
+
+    /**
+     * Parses the rest of a string whose opening quote has been consumed
+     */
+    private String parseString() {
+        text.setLength(0);
+        while (pos < line.length()) {
+            char c = line.charAt(pos++);
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (pos == line.length()) {
+                break;
+            }
+            char escaped = line.charAt(pos++);
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    text.append(escaped);
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > line.length()) {
+                        throw new IllegalArgumentException("truncated unicode escape");
+                    }
+                    try {
+                        text.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("invalid unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("invalid escape \\" + escaped);
+            }
+        }
+        throw new IllegalArgumentException("string is never closed");
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw new IllegalArgumentException(
+                "expected '" + expected + "' at column " + (pos + 1)
+            );
+        }
+        pos++;
+    }
+
+    private int peek() {
+        return pos < line.length() ? line.charAt(pos) : -1;
+    }
+
+    private void skipWhitespace() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+}
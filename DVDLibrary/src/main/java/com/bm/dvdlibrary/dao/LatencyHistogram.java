@@ -0,0 +1,112 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Record latencies into a lock-free log-linear histogram
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of nanosecond latencies, recorded without locks.
+ *
+ * Buckets are log-linear: each power of two is split into eight equal
+ * sub-buckets, so any recorded value is known to within 12.5% while the
+ * whole range of a long fits in under 500 counters. Recording a value
+ * costs one atomic increment and one LongAdder addition
+ *
+ * @author agent
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency
+     *
+     * @param nanos
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.getAndIncrement(bucketOf(nanos));
+        sum.add(nanos);
+        if (nanos > max.get()) {
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Summarizes the latencies recorded so far. Recording may continue
+     * meanwhile, so the summary is only approximately consistent
+     *
+     * @return The aforementioned summary
+     */
+    public LatencySummary summarize() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            total += snapshot[bucket];
+        }
+        long maxNanos = max.get();
+        return new LatencySummary(
+            total,
+            total == 0 ? 0 : sum.sum() / total,
+            percentile(snapshot, total, 0.50, maxNanos),
+            percentile(snapshot, total, 0.90, maxNanos),
+            percentile(snapshot, total, 0.99, maxNanos),
+            percentile(snapshot, total, 0.999, maxNanos),
+            maxNanos
+        );
+    }
+
+    /**
+     * Finds the upper bound of the bucket holding the given fraction of
+     * the recorded values, which is never more than the largest one
+     */
+    private static long percentile(long[] snapshot, long total, double fraction, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS | bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Hold percentiles of the latencies of one operation
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * The count, mean, percentiles and maximum of the latencies recorded by a
+ * LatencyHistogram, in nanoseconds
+ *
+ * @author agent
+ */
+public class LatencySummary {
+    private final long count;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    @ConstructorParameters({
+        "count", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos", "maxNanos"
+    })
+    public LatencySummary(
+        long count, long meanNanos, long p50Nanos, long p90Nanos,
+        long p99Nanos, long p999Nanos, long maxNanos
+    ) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " mean=" + meanNanos + "ns p50=" + p50Nanos
+            + "ns p90=" + p90Nanos + "ns p99=" + p99Nanos + "ns p99.9=" + p999Nanos
+            + "ns max=" + maxNanos + "ns";
+    }
+}
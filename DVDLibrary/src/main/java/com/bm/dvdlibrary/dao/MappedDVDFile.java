@@ -0,0 +1,443 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Decode DVDs on demand from a memory-mapped binary library
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A memory-mapped binary library file along with an off-heap index from
+ * each title to the offset of its record.
+ *
+ * Only the string table lives on the heap; records are decoded into DVDs
+ * when asked for. Files larger than a single mapping are mapped as
+ * overlapping segments, so every record lies wholly within the segment in
+ * which it starts.
+ *
+ * Every record and the string table are checked when the file is opened,
+ * so a corrupt file is rejected there, and records are decoded later
+ * without checks
+ *
+ * @author agent
+ */
+class MappedDVDFile {
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final int SLOT_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int MAX_SLOTS = Integer.MAX_VALUE / SLOT_SIZE;
+
+    private final MappedByteBuffer[] segments;
+    private final String[] strings;
+
+    /**
+     * The MPAA rating for each string table entry, or null for entries
+     * that are not MPAA ratings
+     */
+    private final MpaaRating[] mpaaRatings;
+    private final long recordsEnd;
+
+    /**
+     * Open-addressed hash table of (record offset + 1, title hash) slots,
+     * where an offset of 0 marks an empty slot
+     */
+    private final ByteBuffer index;
+    private final int slotMask;
+    private int recordCount;
+
+    /**
+     * Maps the binary library file and indexes every record in it
+     *
+     * @param file
+     * @throws IOException If the file cannot be read, is not a binary
+     * library or is corrupt
+     */
+    MappedDVDFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < DVDBinaryFormat.HEADER_SIZE + DVDBinaryFormat.FOOTER_SIZE) {
+                throw new IOException(file + " is not a binary DVD library");
+            }
+            int segmentCount = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * SEGMENT_SIZE;
+                long length = Math.min(
+                    size - start, SEGMENT_SIZE + DVDBinaryFormat.MAX_RECORD_SIZE
+                );
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+
+            long footer = size - DVDBinaryFormat.FOOTER_SIZE;
+            recordsEnd = getLong(footer);
+            if (getInt(0) != DVDBinaryFormat.MAGIC
+                || getInt(footer + 2 * Long.BYTES) != DVDBinaryFormat.MAGIC
+                || recordsEnd < DVDBinaryFormat.HEADER_SIZE || recordsEnd > footer) {
+                throw new IOException(file + " is not a binary DVD library");
+            }
+            short version = segments[0].getShort(Integer.BYTES);
+            if (version != DVDBinaryFormat.VERSION) {
+                throw new IOException("Unsupported binary DVD library version " + version);
+            }
+            strings = readStringTable(file, recordsEnd, footer);
+            mpaaRatings = new MpaaRating[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                mpaaRatings[i] = MpaaRating.fromLabel(strings[i]).orElse(null);
+            }
+
+            // the footer's record count is not trusted to size the table
+            long scannedCount = 0;
+            for (long offset = DVDBinaryFormat.HEADER_SIZE; offset < recordsEnd;
+                offset = checkRecord(file, offset)) {
+                scannedCount++;
+            }
+
+            // rounded up to a power of two, whose table must still fit in
+            // a single buffer
+            long wantedSlots = Math.max(Math.min(scannedCount, MAX_SLOTS) * 2, 16);
+            long roundedSlots = Long.highestOneBit(wantedSlots - 1) << 1;
+            if (roundedSlots > MAX_SLOTS) {
+                throw new IOException(file + " holds too many records to index");
+            }
+            int slots = (int) roundedSlots;
+            slotMask = slots - 1;
+            index = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+            for (long offset = DVDBinaryFormat.HEADER_SIZE; offset < recordsEnd;
+                offset = skipRecord(offset)) {
+                insert(offset);
+            }
+        }
+    }
+
+    /**
+     * Obtains the number of distinct titles in the file
+     *
+     * @return The aforementioned number
+     */
+    int size() {
+        return recordCount;
+    }
+
+    /**
+     * Decodes the DVD with the given title, if the file holds one
+     *
+     * @param title
+     * @return The aforementioned DVD, or null
+     */
+    DVD get(String title) {
+        byte[] key = title.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long stored = index.getLong(slot * SLOT_SIZE);
+            if (stored == 0) {
+                return null;
+            }
+            long offset = stored - 1;
+            if (index.getInt(slot * SLOT_SIZE + Long.BYTES) == hash
+                && titleEquals(offset, key)) {
+                return decode(offset);
+            }
+        }
+    }
+
+    /**
+     * Decodes every DVD in the file, in file order, into the sink. Where a
+     * title occurs more than once, only its last record is decoded
+     *
+     * @param sink
+     */
+    void forEach(Consumer<DVD> sink) {
+        for (long offset = DVDBinaryFormat.HEADER_SIZE; offset < recordsEnd;
+            offset = skipRecord(offset)) {
+            if (indexedOffsetOf(offset) == offset) {
+                sink.accept(decode(offset));
+            }
+        }
+    }
+
+    /**
+     * Obtains a Stream that decodes every DVD in the file, in file order,
+     * one at a time as it is consumed. Where a title occurs more than once,
+     * only its last record is decoded
+     *
+     * @return The aforementioned Stream
+     */
+    Stream<DVD> stream() {
+        Spliterator<DVD> records = new Spliterators.AbstractSpliterator<DVD>(
+            recordCount, Spliterator.ORDERED | Spliterator.NONNULL
+        ) {
+            private long offset = DVDBinaryFormat.HEADER_SIZE;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super DVD> action) {
+                while (offset < recordsEnd) {
+                    long current = offset;
+                    offset = skipRecord(current);
+                    if (indexedOffsetOf(current) == current) {
+                        action.accept(decode(current));
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(records, false);
+    }
+
+    private void insert(long offset) {
+        int hash = titleHash(offset);
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long stored = index.getLong(slot * SLOT_SIZE);
+            if (stored == 0) {
+                index.putLong(slot * SLOT_SIZE, offset + 1);
+                index.putInt(slot * SLOT_SIZE + Long.BYTES, hash);
+                recordCount++;
+                return;
+            }
+            // a later record for the same title replaces the earlier one
+            if (index.getInt(slot * SLOT_SIZE + Long.BYTES) == hash
+                && sameTitle(stored - 1, offset)) {
+                index.putLong(slot * SLOT_SIZE, offset + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the offset the index holds for the title of the record at
+     * the given offset
+     */
+    private long indexedOffsetOf(long offset) {
+        int hash = titleHash(offset);
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long stored = index.getLong(slot * SLOT_SIZE);
+            if (stored == 0) {
+                return -1;
+            }
+            if (index.getInt(slot * SLOT_SIZE + Long.BYTES) == hash
+                && sameTitle(stored - 1, offset)) {
+                return stored - 1;
+            }
+        }
+    }
+
+    private DVD decode(long offset) {
+        long[] cursor = {offset};
+        DVD.Builder builder = DVD.builder(readString(cursor));
+        builder.releaseEpochDay(getInt(cursor[0]));
+        cursor[0] += Integer.BYTES;
+        MpaaRating mpaaRating = mpaaRatings[readVarInt(cursor)];
+        if (mpaaRating == null) {
+            throw new IllegalStateException("Corrupt binary DVD library at " + offset);
+        }
+        builder.mpaaRating(mpaaRating);
+        builder.directorName(strings[readVarInt(cursor)]);
+        builder.studio(strings[readVarInt(cursor)]);
+        builder.rating(getByte(cursor[0]));
+        cursor[0]++;
+        return builder.note(readString(cursor)).build();
+    }
+
+    private long skipRecord(long offset) {
+        long[] cursor = {offset};
+        int titleLength = readVarInt(cursor);
+        cursor[0] += titleLength + Integer.BYTES;
+        readVarInt(cursor);
+        readVarInt(cursor);
+        readVarInt(cursor);
+        cursor[0]++;
+        int noteLength = readVarInt(cursor);
+        return cursor[0] + noteLength;
+    }
+
+    /**
+     * Checks the record at the given offset, which decode() and skipRecord()
+     * later trust
+     *
+     * @return The offset of the next record
+     */
+    private long checkRecord(Path file, long offset) throws IOException {
+        long end = Math.min(recordsEnd, offset + DVDBinaryFormat.MAX_RECORD_SIZE);
+        long[] cursor = {offset};
+        int titleLength = readCheckedVarInt(cursor, end);
+        boolean valid = titleLength >= 0
+            && skipChecked(cursor, (long) titleLength + Integer.BYTES, end);
+        int mpaaRating = valid ? readCheckedVarInt(cursor, end) : -1;
+        valid = valid && mpaaRating >= 0 && mpaaRating < strings.length
+            && mpaaRatings[mpaaRating] != null;
+        for (int i = 0; valid && i < 2; i++) {
+            int string = readCheckedVarInt(cursor, end);
+            valid = string >= 0 && string < strings.length;
+        }
+        // the rating, which is never negative
+        valid = valid && cursor[0] < end && getByte(cursor[0]++) >= 0;
+        valid = valid && skipChecked(cursor, readCheckedVarInt(cursor, end), end);
+        if (!valid) {
+            throw new IOException(
+                "Corrupt binary DVD library " + file + ": record at " + offset
+            );
+        }
+        return cursor[0];
+    }
+
+    private String[] readStringTable(Path file, long offset, long end) throws IOException {
+        long[] cursor = {offset};
+        int count = readCheckedVarInt(cursor, end);
+        // every string takes at least a byte
+        if (count < 0 || count > end - cursor[0]) {
+            throw new IOException(
+                "Corrupt binary DVD library " + file + ": string table of " + count
+            );
+        }
+        String[] table = new String[count];
+        for (int i = 0; i < table.length; i++) {
+            long start = cursor[0];
+            int length = readCheckedVarInt(cursor, end);
+            if (length < 0 || length > DVDBinaryFormat.MAX_RECORD_SIZE
+                || length > end - cursor[0]) {
+                throw new IOException(
+                    "Corrupt binary DVD library " + file + ": string at " + start
+                );
+            }
+            cursor[0] = start;
+            table[i] = readString(cursor);
+        }
+        return table;
+    }
+
+    private int titleHash(long offset) {
+        long[] cursor = {offset};
+        int length = readVarInt(cursor);
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + getByte(cursor[0] + i);
+        }
+        return mix(hash);
+    }
+
+    private static int hash(byte[] key) {
+        int hash = 1;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        return mix(hash);
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean titleEquals(long offset, byte[] key) {
+        long[] cursor = {offset};
+        if (readVarInt(cursor) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (getByte(cursor[0] + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameTitle(long first, long second) {
+        long[] firstCursor = {first};
+        long[] secondCursor = {second};
+        int length = readVarInt(firstCursor);
+        if (readVarInt(secondCursor) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (getByte(firstCursor[0] + i) != getByte(secondCursor[0] + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readString(long[] cursor) {
+        int length = readVarInt(cursor);
+        byte[] bytes = new byte[length];
+        ByteBuffer segment = segments[(int) (cursor[0] >>> SEGMENT_SHIFT)];
+        int local = (int) (cursor[0] & (SEGMENT_SIZE - 1));
+        for (int i = 0; i < length; i++) {
+            bytes[i] = segment.get(local + i);
+        }
+        cursor[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a variable-length int that must end before the end offset
+     *
+     * @return The int, or -1 if it is malformed or runs past the end
+     */
+    private int readCheckedVarInt(long[] cursor, long end) {
+        int value = 0;
+        for (int shift = 0; shift < 35 && cursor[0] < end; shift += 7) {
+            byte b = getByte(cursor[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value < 0 ? -1 : value;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the cursor on by the given length, if that stays before the end
+     * offset
+     *
+     * @return Whether it did
+     */
+    private static boolean skipChecked(long[] cursor, long length, long end) {
+        if (length < 0 || length > end - cursor[0]) {
+            return false;
+        }
+        cursor[0] += length;
+        return true;
+    }
+
+    private int readVarInt(long[] cursor) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = getByte(cursor[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private byte getByte(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)]
+            .get((int) (offset & (SEGMENT_SIZE - 1)));
+    }
+
+    private int getInt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)]
+            .getInt((int) (offset & (SEGMENT_SIZE - 1)));
+    }
+
+    private long getLong(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)]
+            .getLong((int) (offset & (SEGMENT_SIZE - 1)));
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Hold DVDs by title in an immutable map that is cheap to update
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * An immutable map from title to DVD, held as a hash array mapped trie.
+ *
+ * Adding, replacing or removing a DVD yields a new map that shares all but
+ * the few nodes on the path to that DVD with the old one, so each update
+ * copies at most a handful of small arrays, and any map that has been
+ * obtained stays a consistent snapshot for as long as it is held
+ *
+ * @author agent
+ */
+final class PersistentDVDMap implements Iterable<DVD> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Hashes are fully consumed below this shift, so deeper DVDs that still
+     * collide are kept in a CollisionNode
+     */
+    private static final int MAX_SHIFT = 30;
+    private static final int MAX_DEPTH = MAX_SHIFT / BITS + 2;
+
+    static final PersistentDVDMap EMPTY =
+        new PersistentDVDMap(new Node(0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentDVDMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Obtains the number of DVDs in this map
+     *
+     * @return The aforementioned number
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the DVD with the given title
+     *
+     * @param title
+     * @return The aforementioned DVD, or null
+     */
+    DVD get(String title) {
+        int hash = hash(title);
+        Object current = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (current instanceof CollisionNode) {
+                for (DVD dvd : ((CollisionNode) current).dvds) {
+                    if (dvd.getTitle().equals(title)) {
+                        return dvd;
+                    }
+                }
+                return null;
+            }
+            Node node = (Node) current;
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[node.index(bit)];
+            if (slot instanceof DVD) {
+                DVD dvd = (DVD) slot;
+                return dvd.getTitle().equals(title) ? dvd : null;
+            }
+            current = slot;
+        }
+    }
+
+    /**
+     * Obtains a map holding the DVD in place of any other with its title
+     *
+     * @param dvd
+     * @return The aforementioned map
+     */
+    PersistentDVDMap put(DVD dvd) {
+        int[] added = {0};
+        Node newRoot = (Node) put(root, 0, hash(dvd.getTitle()), dvd, added);
+        return newRoot == root ? this : new PersistentDVDMap(newRoot, size + added[0]);
+    }
+
+    /**
+     * Obtains a map without the DVD with the given title
+     *
+     * @param title
+     * @return The aforementioned map, or this one if it has no such DVD
+     */
+    PersistentDVDMap remove(String title) {
+        Object newRoot = remove(root, 0, hash(title), title);
+        if (newRoot == root) {
+            return this;
+        }
+        if (newRoot == null) {
+            return EMPTY;
+        }
+        return new PersistentDVDMap((Node) newRoot, size - 1);
+    }
+
+    /**
+     * Iterates over the DVDs in this map, in no particular order
+     *
+     * @return The aforementioned Iterator
+     */
+    @Override
+    public Iterator<DVD> iterator() {
+        return new TrieIterator(root);
+    }
+
+    @Override
+    public Spliterator<DVD> spliterator() {
+        return Spliterators.spliterator(
+            iterator(), size,
+            Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE
+        );
+    }
+
+    private static Object put(Object current, int shift, int hash, DVD dvd, int[] added) {
+        if (current instanceof CollisionNode) {
+            DVD[] dvds = ((CollisionNode) current).dvds;
+            for (int i = 0; i < dvds.length; i++) {
+                if (dvds[i].getTitle().equals(dvd.getTitle())) {
+                    if (dvds[i] == dvd) {
+                        return current;
+                    }
+                    DVD[] replaced = dvds.clone();
+                    replaced[i] = dvd;
+                    return new CollisionNode(replaced);
+                }
+            }
+            DVD[] extended = new DVD[dvds.length + 1];
+            System.arraycopy(dvds, 0, extended, 0, dvds.length);
+            extended[dvds.length] = dvd;
+            added[0] = 1;
+            return new CollisionNode(extended);
+        }
+
+        Node node = (Node) current;
+        int bit = bit(hash, shift);
+        int index = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = dvd;
+            System.arraycopy(node.slots, index, slots, index + 1, node.slots.length - index);
+            added[0] = 1;
+            return new Node(node.bitmap | bit, slots);
+        }
+
+        Object slot = node.slots[index];
+        Object replacement;
+        if (slot instanceof DVD) {
+            DVD existing = (DVD) slot;
+            if (existing == dvd) {
+                return node;
+            }
+            if (existing.getTitle().equals(dvd.getTitle())) {
+                replacement = dvd;
+            } else {
+                added[0] = 1;
+                replacement = branch(
+                    existing, hash(existing.getTitle()), dvd, hash, shift + BITS
+                );
+            }
+        } else {
+            replacement = put(slot, shift + BITS, hash, dvd, added);
+            if (replacement == slot) {
+                return node;
+            }
+        }
+        return node.with(index, replacement);
+    }
+
+    /**
+     * Builds the smallest subtree holding two DVDs with different titles
+     */
+    private static Object branch(DVD first, int firstHash, DVD second, int secondHash,
+        int shift) {
+        if (shift > MAX_SHIFT) {
+            return new CollisionNode(new DVD[] {first, second});
+        }
+        int firstBit = bit(firstHash, shift);
+        int secondBit = bit(secondHash, shift);
+        if (firstBit == secondBit) {
+            return new Node(firstBit, new Object[] {
+                branch(first, firstHash, second, secondHash, shift + BITS)
+            });
+        }
+        return new Node(
+            firstBit | secondBit,
+            Integer.compareUnsigned(firstBit, secondBit) < 0
+                ? new Object[] {first, second} : new Object[] {second, first}
+        );
+    }
+
+    /**
+     * Removes the DVD with the given title from the subtree, returning the
+     * subtree itself if it has no such DVD, null if it ends up empty, or
+     * the single DVD left in it, which its parent then holds directly
+     */
+    private static Object remove(Object current, int shift, int hash, String title) {
+        if (current instanceof CollisionNode) {
+            DVD[] dvds = ((CollisionNode) current).dvds;
+            for (int i = 0; i < dvds.length; i++) {
+                if (dvds[i].getTitle().equals(title)) {
+                    if (dvds.length == 2) {
+                        return dvds[1 - i];
+                    }
+                    DVD[] shrunk = new DVD[dvds.length - 1];
+                    System.arraycopy(dvds, 0, shrunk, 0, i);
+                    System.arraycopy(dvds, i + 1, shrunk, i, dvds.length - i - 1);
+                    return new CollisionNode(shrunk);
+                }
+            }
+            return current;
+        }
+
+        Node node = (Node) current;
+        int bit = bit(hash, shift);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int index = node.index(bit);
+        Object slot = node.slots[index];
+        Object replacement;
+        if (slot instanceof DVD) {
+            if (!((DVD) slot).getTitle().equals(title)) {
+                return node;
+            }
+            replacement = null;
+        } else {
+            replacement = remove(slot, shift + BITS, hash, title);
+            if (replacement == slot) {
+                return node;
+            }
+        }
+
+        if (replacement != null) {
+            // a lone DVD moves up as far as it can
+            if (replacement instanceof DVD && node.slots.length == 1 && shift > 0) {
+                return replacement;
+            }
+            return node.with(index, replacement);
+        }
+        if (node.slots.length == 1) {
+            return null;
+        }
+        if (node.slots.length == 2 && shift > 0 && node.slots[1 - index] instanceof DVD) {
+            return node.slots[1 - index];
+        }
+        Object[] slots = new Object[node.slots.length - 1];
+        System.arraycopy(node.slots, 0, slots, 0, index);
+        System.arraycopy(node.slots, index + 1, slots, index, slots.length - index);
+        return new Node(node.bitmap & ~bit, slots);
+    }
+
+    private static int hash(String title) {
+        int hash = title.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * A node of the trie, holding a DVD or a subtree for each bit set in
+     * its bitmap, in bit order
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Node with(int index, Object slot) {
+            Object[] copy = slots.clone();
+            copy[index] = slot;
+            return new Node(bitmap, copy);
+        }
+    }
+
+    /**
+     * DVDs whose title hashes are identical
+     */
+    private static final class CollisionNode {
+        final DVD[] dvds;
+
+        CollisionNode(DVD[] dvds) {
+            this.dvds = dvds;
+        }
+    }
+
+    /**
+     * Walks the trie depth first, keeping the slots of each node on the
+     * path to the current DVD
+     */
+    private static final class TrieIterator implements Iterator<DVD> {
+        private final Object[][] path = new Object[MAX_DEPTH + 1][];
+        private final int[] positions = new int[MAX_DEPTH + 1];
+        private int depth;
+        private DVD next;
+
+        TrieIterator(Node root) {
+            path[0] = root.slots;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public DVD next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            DVD current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                Object[] slots = path[depth];
+                if (positions[depth] == slots.length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = slots[positions[depth]++];
+                if (slot instanceof DVD) {
+                    next = (DVD) slot;
+                    return;
+                }
+                depth++;
+                positions[depth] = 0;
+                path[depth] = slot instanceof Node
+                    ? ((Node) slot).slots : ((CollisionNode) slot).dvds;
+            }
+            next = null;
+        }
+    }
+}
@@ -9,78 +9,217 @@
 package com.bm.dvdlibrary.dto;
 
 import java.time.LocalDate;
+import java.util.Objects;
 
 /**
  * The Data Transfer Object for the whole application.
  * It represents DVDs, each of which are assumed to be 
  * identified by their title
  * 
+ * DVDs are immutable, so they can be shared freely between threads; 
+ * edits are made by building a modified copy through toBuilder().
+ * They are also kept compact: the release date is held as an epoch day,
+ * the user rating as a byte, and director and studio names are interned
+ * 
  * @author Benjamin Munoz
  */
-public class DVD {
-    private String title;
-    private LocalDate releaseDate;
+public final class DVD {
+    private final String title;
+    private final int releaseEpochDay;
     
-    private String mpaaRating;
-    private String directorName;
-    private String studio;
+    private final MpaaRating mpaaRating;
+    private final String directorName;
+    private final String studio;
     
-    private int rating;
-    private String note;
+    private final byte rating;
+    private final String note;
 
-    public DVD(String title) {
-        this.title = title;
+    private DVD(Builder builder) {
+        this.title = builder.title;
+        this.releaseEpochDay = builder.releaseEpochDay;
+        this.mpaaRating = builder.mpaaRating;
+        this.directorName = StringInterner.intern(builder.directorName);
+        this.studio = StringInterner.intern(builder.studio);
+        this.rating = builder.rating;
+        this.note = builder.note;
+    }
+    
+    /**
+     * Starts building a DVD with the given title
+     * 
+     * @param title
+     * @return The aforementioned builder
+     */
+    public static Builder builder(String title) {
+        return new Builder(title);
+    }
+    
+    /**
+     * Starts building a modified copy of this DVD
+     * 
+     * @return A builder holding all the information of this DVD
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder(title);
+        builder.releaseEpochDay = releaseEpochDay;
+        builder.hasReleaseDate = true;
+        builder.mpaaRating = mpaaRating;
+        builder.directorName = directorName;
+        builder.studio = studio;
+        builder.rating = rating;
+        builder.note = note;
+        return builder;
     }
 
     public LocalDate getReleaseDate() {
-        return releaseDate;
+        return LocalDate.ofEpochDay(releaseEpochDay);
     }
-
-    public void setReleaseDate(LocalDate releaseDate) {
-        this.releaseDate = releaseDate;
+    
+    /**
+     * Obtains the release date as a number of days since 1970-01-01
+     * 
+     * @return The aforementioned number
+     */
+    public int getReleaseEpochDay() {
+        return releaseEpochDay;
     }
     
-    public String getMpaaRating() {
+    public MpaaRating getMpaaRating() {
         return mpaaRating;
     }
 
-    public void setMpaaRating(String mpaaRating) {
-        this.mpaaRating = mpaaRating;
-    }
-
     public String getDirectorName() {
         return directorName;
     }
 
-    public void setDirectorName(String directorName) {
-        this.directorName = directorName;
-    }
-
     public int getRating() {
         return rating;
     }
 
-    public void setRating(int rating) {
-        this.rating = rating;
-    }
-
     public String getNote() {
         return note;
     }
 
-    public void setNote(String note) {
-        this.note = note;
-    }
-
     public String getStudio() {
         return studio;
     }
-
-    public void setStudio(String studio) {
-        this.studio = studio;
-    }
     
     public String getTitle() {
         return title;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DVD)) {
+            return false;
+        }
+        DVD other = (DVD) obj;
+        return releaseEpochDay == other.releaseEpochDay
+            && rating == other.rating
+            && mpaaRating == other.mpaaRating
+            && title.equals(other.title)
+            && directorName.equals(other.directorName)
+            && studio.equals(other.studio)
+            && note.equals(other.note);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            title, releaseEpochDay, mpaaRating, directorName, studio, rating, note
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "DVD{" + "title=" + title + ", releaseDate=" + getReleaseDate()
+            + ", mpaaRating=" + mpaaRating + ", directorName=" + directorName
+            + ", studio=" + studio + ", rating=" + rating + ", note=" + note + '}';
+    }
+    
+    /**
+     * Builds DVDs. A builder may be reused, each call to build() producing
+     * a DVD from the information it holds at that point
+     */
+    public static final class Builder {
+        private String title;
+        private int releaseEpochDay;
+        private boolean hasReleaseDate;
+        private MpaaRating mpaaRating;
+        private String directorName = "";
+        private String studio = "";
+        private byte rating;
+        private String note = "";
+        
+        private Builder(String title) {
+            this.title = Objects.requireNonNull(title);
+        }
+        
+        public Builder title(String title) {
+            this.title = Objects.requireNonNull(title);
+            return this;
+        }
+        
+        public Builder releaseDate(LocalDate releaseDate) {
+            return releaseEpochDay(Math.toIntExact(releaseDate.toEpochDay()));
+        }
+        
+        public Builder releaseEpochDay(int releaseEpochDay) {
+            this.releaseEpochDay = releaseEpochDay;
+            this.hasReleaseDate = true;
+            return this;
+        }
+        
+        public Builder mpaaRating(MpaaRating mpaaRating) {
+            this.mpaaRating = Objects.requireNonNull(mpaaRating);
+            return this;
+        }
+        
+        public Builder directorName(String directorName) {
+            this.directorName = Objects.requireNonNull(directorName);
+            return this;
+        }
+        
+        public Builder studio(String studio) {
+            this.studio = Objects.requireNonNull(studio);
+            return this;
+        }
+        
+        /**
+         * Sets the user rating, which must lie between 0 and 127
+         * 
+         * @param rating
+         * @return This builder
+         */
+        public Builder rating(int rating) {
+            if (rating < 0 || rating > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Rating out of range: " + rating);
+            }
+            this.rating = (byte) rating;
+            return this;
+        }
+        
+        public Builder note(String note) {
+            this.note = Objects.requireNonNull(note);
+            return this;
+        }
+        
+        /**
+         * Builds a DVD from the information held so far. The release date
+         * and MPAA rating must have been given
+         * 
+         * @return The aforementioned DVD
+         */
+        public DVD build() {
+            if (!hasReleaseDate || mpaaRating == null) {
+                throw new IllegalStateException(
+                    "A DVD needs a release date and an MPAA rating"
+                );
+            }
+            return new DVD(this);
+        }
+    }
+}
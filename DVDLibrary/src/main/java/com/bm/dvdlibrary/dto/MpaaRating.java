@@ -0,0 +1,69 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Enumerate the possible MPAA ratings of a DVD
+ */
+
+package com.bm.dvdlibrary.dto;
+
+import java.util.Optional;
+
+/**
+ * The MPAA ratings a DVD may have, each with the label it is
+ * displayed and stored as
+ *
+ * @author agent
+ */
+public enum MpaaRating {
+    G("G"),
+    PG("PG"),
+    PG_13("PG-13"),
+    R("R"),
+    NC_17("NC-17");
+
+    private final String label;
+
+    private MpaaRating(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Obtains the label of this rating, such as "PG-13"
+     *
+     * @return The aforementioned label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Finds the rating with the given label
+     *
+     * @param label
+     * @return An instance containing the rating, or an empty instance if
+     * the label is not that of a valid MPAA rating
+     */
+    public static Optional<MpaaRating> fromLabel(String label) {
+        switch (label) {
+            case "G":
+                return Optional.of(G);
+            case "PG":
+                return Optional.of(PG);
+            case "PG-13":
+                return Optional.of(PG_13);
+            case "R":
+                return Optional.of(R);
+            case "NC-17":
+                return Optional.of(NC_17);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Share one instance of each heavily repeated String
+ */
+
+package com.bm.dvdlibrary.dto;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Deduplicates the Strings that DVDs hold in common, such as director and
+ * studio names, so that a large collection retains one copy of each.
+ *
+ * Interned Strings are only weakly held, so a String is released once no
+ * DVD holds it any longer. The pool is split into stripes, each locked on
+ * its own, so DVDs built on many threads at once rarely contend
+ *
+ * @author agent
+ */
+public final class StringInterner {
+    private static final int STRIPE_COUNT = 16;
+    private static final List<Map<String, WeakReference<String>>> STRIPES =
+        new ArrayList<>(STRIPE_COUNT);
+
+    static {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            STRIPES.add(new WeakHashMap<>());
+        }
+    }
+
+    private StringInterner() {
+    }
+
+    /**
+     * Obtains the shared instance of a String equal to the given one
+     *
+     * @param string
+     * @return The aforementioned instance
+     */
+    public static String intern(String string) {
+        int hash = string.hashCode();
+        Map<String, WeakReference<String>> stripe =
+            STRIPES.get((hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1));
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(string);
+            String shared = reference == null ? null : reference.get();
+            if (shared != null) {
+                return shared;
+            }
+            // the value must not hold its own key strongly
+            stripe.put(string, new WeakReference<>(string));
+            return string;
+        }
+    }
+}
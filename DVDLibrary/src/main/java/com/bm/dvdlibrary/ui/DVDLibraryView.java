@@ -7,7 +7,9 @@
 
 package com.bm.dvdlibrary.ui;
 
+import com.bm.dvdlibrary.dto.MpaaRating;
 import java.time.LocalDate;
+import java.util.Optional;
 
 /**
  * The View component for this application
@@ -71,7 +73,8 @@ public class DVDLibraryView {
         userIO.print("3: Edit an existing DVD in the collection");
         userIO.print("4: Remove a DVD from the collection");
         userIO.print("5: List all DVDs in collection");
-        userIO.print("6: Exit Application");
+        userIO.print("6: View statistics for the collection");
+        userIO.print("7: Exit Application");
         userIO.printFooter("MAIN MENU");
     }
     
@@ -131,6 +134,8 @@ public class DVDLibraryView {
             day = queryInt("Provide a day");
             try {
                 receivedDate = LocalDate.of(year, month, day);
+                // DVDs hold their release date as an int epoch day
+                Math.toIntExact(receivedDate.toEpochDay());
                 dateNotValid = false;
             } catch (Exception ex) {
                 displayError("The date entered was invalid");
@@ -147,27 +152,28 @@ public class DVDLibraryView {
      * - PG-13
      * - R
      * - NC-17
-     * @return A String representing a valid MPAA rating
+     * @return The MPAA rating entered by the user
      */
-    public String queryMpaaRating() {
+    public MpaaRating queryMpaaRating() {
         userIO.printSolicitation("Enter an MPAA Rating");
-        String receivedRating;
-        boolean ratingIsInvalid = true;
+        Optional<MpaaRating> receivedRating;
         do {
-            receivedRating = userIO.readNonemptyString();
-            switch (receivedRating) {
-                case "G" :
-                case "PG" :
-                case "PG-13" :
-                case "R":
-                case "NC-17":
-                    ratingIsInvalid = false;
-                    break;
-                default:
-                    userIO.printError("Please enter a valid MPAA rating");
+            receivedRating = MpaaRating.fromLabel(userIO.readNonemptyString());
+            if (receivedRating.isEmpty()) {
+                userIO.printError("Please enter a valid MPAA rating");
             }
-        } while (ratingIsInvalid);
-        return receivedRating;
+        } while (receivedRating.isEmpty());
+        return receivedRating.get();
+    }
+    
+    /**
+     * Prompt the user to either move on to the next page of a listing
+     * or stop there
+     * @return Whether the user wants the next page
+     */
+    public boolean queryNextPage() {
+        userIO.printSolicitation("Press ENTER for the next page, or enter q to stop");
+        return !userIO.readString().trim().equalsIgnoreCase("q");
     }
     
     /**
@@ -177,4 +183,11 @@ public class DVDLibraryView {
     public void displayError(String err) {
         userIO.printError(err);
     }
+    
+    /**
+     * Make sure everything sent so far has reached the user
+     */
+    public void flush() {
+        userIO.flush();
+    }
 }
@@ -0,0 +1,56 @@
+/**
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Socket implementation of the UserIO interface
+ */
+
+package com.bm.dvdlibrary.ui;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+/**
+ * An implementation of the UserIO interface that talks to a user
+ * connected through a socket, e.g. with telnet or nc. Output is buffered
+ * as in the buffered mode of UserIOImpl, so each screen is sent in a
+ * single write.
+ * 
+ * Once the user disconnects, reads throw NoSuchElementException
+ * 
+ * @author agent
+ */
+public class SocketUserIO extends UserIOImpl {
+    private final Socket socket;
+
+    /**
+     * Constructs a new instance of this class that talks through the given
+     * connected socket, which it closes when it is closed
+     * 
+     * @param socket
+     * @throws IOException If the streams of the socket cannot be obtained
+     */
+    public SocketUserIO(Socket socket) throws IOException {
+        super(
+            new Scanner(socket.getInputStream(), StandardCharsets.UTF_8),
+            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)
+        );
+        this.socket = socket;
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // the session is over either way
+            }
+        }
+    }
+}
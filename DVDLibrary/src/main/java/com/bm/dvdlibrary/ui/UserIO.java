@@ -83,6 +83,14 @@ public interface UserIO {
      */
     public int readInt(int min, int max);
     
+    /**
+     * Makes sure everything printed so far has reached the user. This
+     * default implementation does nothing, for components that never hold
+     * output back
+     */
+    public default void flush() {
+    }
+    
     /**
      * Release resources required for this component
      */
@@ -7,17 +7,36 @@
 
 package com.bm.dvdlibrary.ui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Scanner;
 
 /**
  * An implementation of the UserIO interface
  * based on console interactions
  * 
+ * By default every line is printed straight to System.out. In buffered
+ * mode, lines are instead rendered into one reusable buffer, which is
+ * written out in a single call whenever input is about to be read, the
+ * buffer fills up, or flush() is called. Whatever the user is asked to
+ * answer is therefore always on screen, while a long listing costs one
+ * write per screen rather than one per line
+ * 
  * @author Benjamin Munoz
  */
 public class UserIOImpl implements UserIO {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
 
     private Scanner uInput;
+    
+    /**
+     * Where buffered output goes, or null when output is not buffered
+     */
+    private final Writer out;
+    private final StringBuilder output;
+    private final char[] chunk;
 
     /**
      * Constructs a new instance of this class
@@ -27,49 +46,104 @@ public class UserIOImpl implements UserIO {
      */
     public UserIOImpl(Scanner uInput) {
         this.uInput = uInput;
+        this.out = null;
+        this.output = null;
+        this.chunk = null;
+    }
+    
+    /**
+     * Constructs a new instance of this class in buffered mode, using a
+     * Scanner to the console and writing to the given Writer, which is
+     * flushed every time the buffer is written to it
+     * 
+     * @param uInput
+     * @param out 
+     */
+    public UserIOImpl(Scanner uInput, Writer out) {
+        this.uInput = uInput;
+        this.out = out;
+        this.output = new StringBuilder(BUFFER_SIZE + 1024);
+        this.chunk = new char[BUFFER_SIZE];
     }
         
     @Override
     public void print(String txt) {
-        System.out.println(txt);
+        if (output == null) {
+            System.out.println(txt);
+            return;
+        }
+        output.append(txt).append(LINE_SEPARATOR);
+        flushIfFull();
     }
 
     @Override
     public void printInfo(String txt) {
-        System.out.format("|| %s ||%n", txt);
+        if (output == null) {
+            System.out.format("|| %s ||%n", txt);
+            return;
+        }
+        output.append("|| ").append(txt).append(" ||").append(LINE_SEPARATOR);
+        flushIfFull();
     }
 
     @Override
     public void printHeader(String txt) {
-        System.out.format("/| %s |\\%n", txt);
+        if (output == null) {
+            System.out.format("/| %s |\\%n", txt);
+            return;
+        }
+        output.append("/| ").append(txt).append(" |\\").append(LINE_SEPARATOR);
+        flushIfFull();
     }
 
     @Override
     public void printFooter(String basis) {
-        System.out.format("\\| %s |/%n", "-".repeat(basis.length()));
+        if (output == null) {
+            System.out.format("\\| %s |/%n", "-".repeat(basis.length()));
+            return;
+        }
+        output.append("\\| ");
+        for (int i = 0; i < basis.length(); i++) {
+            output.append('-');
+        }
+        output.append(" |/").append(LINE_SEPARATOR);
+        flushIfFull();
     }
 
     @Override
     public void printSolicitation(String txt) {
-        System.out.format("-- %s --%n", txt);
+        if (output == null) {
+            System.out.format("-- %s --%n", txt);
+            return;
+        }
+        output.append("-- ").append(txt).append(" --").append(LINE_SEPARATOR);
+        flushIfFull();
     }
 
     @Override
     public void printError(String txt) {
-        System.out.format("!! %s !!%n", txt);
+        if (output == null) {
+            System.out.format("!! %s !!%n", txt);
+            return;
+        }
+        output.append("!! ").append(txt).append(" !!").append(LINE_SEPARATOR);
+        flushIfFull();
     }
 
     @Override
     public String readString() {
+        flush();
         return uInput.nextLine();
     }
 
     @Override
     public String readNonemptyString() {
+        flush();
         String receivedString = uInput.nextLine();
         while (receivedString.length() <= 0) {
             printError("The input must not be empty");
             printSolicitation("Please provide nonempty input");
+            flush();
             receivedString = uInput.nextLine();
         }
         return receivedString;
@@ -81,6 +155,7 @@ public class UserIOImpl implements UserIO {
         int receivedInt = -1;
         while (notAnInt) {
             try {
+                flush();
                 receivedInt = Integer.parseInt(uInput.nextLine());
                 notAnInt = false;
             } catch (NumberFormatException ex) {
@@ -98,6 +173,7 @@ public class UserIOImpl implements UserIO {
         int receivedInt = -1;
         while (notValidInt) {
             try {
+                flush();
                 receivedInt = Integer.parseInt(uInput.nextLine());
                 notValidInt = !(min <= receivedInt && receivedInt <= max);
                 if (notValidInt) {
@@ -113,8 +189,37 @@ public class UserIOImpl implements UserIO {
         return receivedInt;
     }
 
+    /**
+     * Writes out whatever output is buffered
+     */
+    @Override
+    public void flush() {
+        if (output == null || output.length() == 0) {
+            return;
+        }
+        try {
+            for (int start = 0; start < output.length(); start += chunk.length) {
+                int end = Math.min(output.length(), start + chunk.length);
+                output.getChars(start, end, chunk, 0);
+                out.write(chunk, 0, end - start);
+            }
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            output.setLength(0);
+        }
+    }
+
     @Override
     public void close() {
+        flush();
         uInput.close();
     }
+
+    private void flushIfFull() {
+        if (output.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
 }
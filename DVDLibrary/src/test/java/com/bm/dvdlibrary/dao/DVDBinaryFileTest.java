@@ -0,0 +1,175 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Test reading binary library files, whole, truncated and corrupt
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reads a binary library through both the streaming reader and the mapped
+ * file, expecting damaged files to be rejected with an IOException rather
+ * than loaded partly, looped over or read out of bounds
+ *
+ * @author agent
+ */
+class DVDBinaryFileTest {
+    private static final int DVD_COUNT = 200;
+
+    @TempDir
+    Path directory;
+
+    private Path libraryFile;
+    private Map<String, DVD> written;
+
+    @BeforeEach
+    void writeLibrary() throws DVDLibraryDaoException {
+        libraryFile = directory.resolve("library.dvdb");
+        DVDLibraryBinaryDaoImpl dao = new DVDLibraryBinaryDaoImpl(libraryFile.toString());
+        written = new HashMap<>();
+        MpaaRating[] ratings = MpaaRating.values();
+        for (int i = 0; i < DVD_COUNT; i++) {
+            DVD dvd = DVD.builder("Title " + i)
+                .releaseDate(LocalDate.of(1990, 1, 1).plusDays(i * 37L))
+                .mpaaRating(ratings[i % ratings.length])
+                .directorName("Director " + i % 7)
+                .studio("Studio " + i % 3)
+                .rating(i % 11)
+                .note(i % 2 == 0 ? "" : "Note " + i)
+                .build();
+            dao.addDVD(dvd);
+            written.put(dvd.getTitle(), dvd);
+        }
+        dao.saveDVDsToExternal();
+    }
+
+    @Test
+    void readsBackEveryRecord() throws IOException {
+        assertEquals(written, readStreaming(libraryFile));
+        assertEquals(written, readMapped(libraryFile));
+    }
+
+    @Test
+    void rejectsATruncatedFile() throws IOException {
+        byte[] bytes = Files.readAllBytes(libraryFile);
+        for (int length : new int[] {0, 3, bytes.length / 2, bytes.length - 1}) {
+            Path truncated = directory.resolve("truncated-" + length + ".dvdb");
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> readStreaming(truncated));
+            assertThrows(IOException.class, () -> readMapped(truncated));
+        }
+    }
+
+    @Test
+    void rejectsARecordLengthRunningPastTheRecords() throws IOException {
+        byte[] bytes = Files.readAllBytes(libraryFile);
+        // the first title's length becomes the largest five byte varint
+        Arrays.fill(bytes, DVDBinaryFormat.HEADER_SIZE, DVDBinaryFormat.HEADER_SIZE + 4,
+            (byte) 0xFF);
+        bytes[DVDBinaryFormat.HEADER_SIZE + 4] = 0x07;
+        Path corrupt = write("corrupt-length.dvdb", bytes);
+
+        assertThrows(IOException.class, () -> readStreaming(corrupt));
+        assertThrows(IOException.class, () -> readMapped(corrupt));
+    }
+
+    @Test
+    void rejectsAStringTableOffsetOutsideTheFile() throws IOException {
+        byte[] bytes = Files.readAllBytes(libraryFile);
+        footer(bytes).putLong(0, bytes.length);
+        Path corrupt = write("corrupt-offset.dvdb", bytes);
+
+        assertThrows(IOException.class, () -> readStreaming(corrupt));
+        assertThrows(IOException.class, () -> readMapped(corrupt));
+    }
+
+    @Test
+    void rejectsAnOverstatedRecordCount() throws IOException {
+        byte[] bytes = Files.readAllBytes(libraryFile);
+        footer(bytes).putLong(Long.BYTES, Long.MAX_VALUE);
+        Path corrupt = write("overstated.dvdb", bytes);
+
+        assertThrows(IOException.class, () -> readStreaming(corrupt));
+        // the mapped file counts the records itself
+        assertEquals(written, readMapped(corrupt));
+    }
+
+    @Test
+    void indexesEveryRecordDespiteAnUnderstatedRecordCount() throws IOException {
+        byte[] bytes = Files.readAllBytes(libraryFile);
+        footer(bytes).putLong(Long.BYTES, 1);
+        Path corrupt = write("understated.dvdb", bytes);
+
+        MappedDVDFile mapped = new MappedDVDFile(corrupt);
+        assertEquals(DVD_COUNT, mapped.size());
+        for (DVD dvd : written.values()) {
+            assertEquals(dvd, mapped.get(dvd.getTitle()));
+        }
+    }
+
+    @Test
+    void reportsACorruptFileThroughTheDaos() throws IOException {
+        byte[] bytes = Files.readAllBytes(libraryFile);
+        Path truncated = write("truncated.dvdb", Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(
+            DVDLibraryDaoException.class,
+            () -> new DVDLibraryBinaryDaoImpl(truncated.toString()).loadDVDsFromExternal()
+        );
+        assertThrows(
+            DVDLibraryDaoException.class,
+            () -> new DVDLibraryMappedDaoImpl(truncated.toString()).loadDVDsFromExternal()
+        );
+    }
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        return Files.write(directory.resolve(name), bytes);
+    }
+
+    private static ByteBuffer footer(byte[] bytes) {
+        return ByteBuffer.wrap(
+            bytes, bytes.length - DVDBinaryFormat.FOOTER_SIZE, DVDBinaryFormat.FOOTER_SIZE
+        ).slice();
+    }
+
+    private static Map<String, DVD> readStreaming(Path file) throws IOException {
+        List<DVD> read = new ArrayList<>();
+        new DVDBinaryFileReader().load(file, read::add);
+        return byTitle(read);
+    }
+
+    private static Map<String, DVD> readMapped(Path file) throws IOException {
+        List<DVD> read = new ArrayList<>();
+        new MappedDVDFile(file).forEach(read::add);
+        return byTitle(read);
+    }
+
+    private static Map<String, DVD> byTitle(List<DVD> dvds) {
+        Map<String, DVD> byTitle = new HashMap<>();
+        for (DVD dvd : dvds) {
+            assertEquals(null, byTitle.put(dvd.getTitle(), dvd));
+        }
+        return byTitle;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Test that CSV catalogues round-trip awkward field values
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Formats DVDs as CSV and reads them back, expecting quotes, commas and
+ * line breaks to survive
+ *
+ * @author agent
+ */
+class DVDCatalogueFormatTest {
+    @Test
+    void roundTripsQuotedFields() throws IOException {
+        List<DVD> dvds = List.of(
+            dvd("Plain", "Director", "Studio", ""),
+            dvd("Crouching Tiger, Hidden Dragon", "Ang Lee", "Sony, Columbia", "a, b"),
+            dvd("The \"Quoted\" One", "\"Nick\"", "\"\"", "ends with a quote\""),
+            dvd("\"\"", "Doubled \"\" quotes", "Studio", "\","),
+            dvd("Leading space", " spaced ", "Studio", "commas, and \"quotes\"")
+        );
+
+        StringBuilder csv = new StringBuilder();
+        DVDCatalogueFormat.CSV.formatHeader(csv);
+        for (DVD dvd : dvds) {
+            DVDCatalogueFormat.CSV.format(dvd, csv);
+        }
+
+        assertEquals(dvds, readAll(csv.toString()));
+    }
+
+    @Test
+    void readsAQuotedFieldSpanningLines() throws IOException {
+        String csv = String.join(",", CatalogueRecord.FIELDS) + "\r\n"
+            + "\"Multi\nLine, Title\",2000-01-01,PG,Director,Studio,5,\"a \"\"b\"\"\r\nc\"\r\n";
+        CatalogueRecordReader reader = DVDCatalogueFormat.CSV.newReader(
+            new BufferedReader(new StringReader(csv))
+        );
+
+        CatalogueRecord record = reader.next();
+        assertNull(record.getError());
+        assertEquals("Multi\nLine, Title", record.get(CatalogueRecord.TITLE));
+        assertEquals("a \"b\"\r\nc", record.get(CatalogueRecord.NOTE));
+        assertEquals(2, record.getLineNumber());
+        assertNull(reader.next());
+    }
+
+    private static List<DVD> readAll(String csv) throws IOException {
+        CatalogueRecordReader reader = DVDCatalogueFormat.CSV.newReader(
+            new BufferedReader(new StringReader(csv))
+        );
+        List<DVD> dvds = new ArrayList<>();
+        for (CatalogueRecord record = reader.next(); record != null; record = reader.next()) {
+            assertNull(record.getError());
+            dvds.add(record.toDVD());
+        }
+        return dvds;
+    }
+
+    private static DVD dvd(String title, String director, String studio, String note) {
+        return DVD.builder(title)
+            .releaseDate(LocalDate.of(2000, 7, 7))
+            .mpaaRating(MpaaRating.PG_13)
+            .directorName(director)
+            .studio(studio)
+            .rating(8)
+            .note(note)
+            .build();
+    }
+}
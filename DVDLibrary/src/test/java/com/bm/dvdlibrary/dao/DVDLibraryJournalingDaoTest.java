@@ -0,0 +1,195 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Test that the journal survives a crash and malformed entries
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Replays journals written by a process that was killed without closing
+ * them, after tearing or corrupting their entries
+ *
+ * @author agent
+ */
+class DVDLibraryJournalingDaoTest {
+    @TempDir
+    Path directory;
+
+    private Path snapshotFile;
+    private Path journalFile;
+
+    @BeforeEach
+    void createEmptySnapshot() throws IOException {
+        snapshotFile = Files.createFile(directory.resolve("library.txt"));
+        journalFile = directory.resolve("library.journal");
+    }
+
+    @Test
+    void replaysEveryAcknowledgedMutationAfterACrash() throws Exception {
+        DVDLibraryJournalingDao crashed = open();
+        crashed.addDVD(dvd("First", 3));
+        crashed.addDVD(dvd("Second", 4));
+        crashed.saveDVD(dvd("First", 5));
+        crashed.removeDVD("Second");
+        crashed.addDVD(dvd("Third", 1));
+        // never closed, as if the process had been killed
+
+        DVDLibraryJournalingDao recovered = open();
+        try {
+            assertEquals(Set.of("First", "Third"), titles(recovered));
+            assertEquals(5, recovered.getDVDByTitle("First").get().getRating());
+        } finally {
+            recovered.close();
+            crashed.close();
+        }
+    }
+
+    @Test
+    void cutsOffAnEntryTornByACrash() throws Exception {
+        DVDLibraryJournalingDao crashed = open();
+        crashed.addDVD(dvd("First", 3));
+        crashed.close();
+        long intact = Files.size(journalFile);
+        Files.write(
+            journalFile, "+Torn::20".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND
+        );
+
+        DVDLibraryJournalingDao recovered = open();
+        try {
+            assertEquals(Set.of("First"), titles(recovered));
+            assertEquals(intact, Files.size(journalFile));
+
+            recovered.addDVD(dvd("Second", 2));
+        } finally {
+            recovered.close();
+        }
+
+        DVDLibraryJournalingDao reopened = open();
+        try {
+            assertEquals(Set.of("First", "Second"), titles(reopened));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void skipsAndReportsAMalformedEntryButKeepsTheLaterOnes() throws Exception {
+        DVDLibraryJournalingDao crashed = open();
+        crashed.addDVD(dvd("First", 3));
+        crashed.addDVD(dvd("Second", 4));
+        crashed.addDVD(dvd("Third", 1));
+        crashed.close();
+
+        List<String> entries = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+        entries.set(1, "+Second::not a date");
+        entries.add(2, "?Unknown");
+        Files.write(journalFile, entries, StandardCharsets.UTF_8);
+        long written = Files.size(journalFile);
+
+        DVDLibraryJournalingDao recovered = new DVDLibraryJournalingDao(
+            new DVDLibraryConcurrentDaoImpl(snapshotFile.toString()), journalFile
+        );
+        try {
+            DVDLibraryDaoException failure = assertThrows(
+                DVDLibraryDaoException.class, recovered::loadDVDsFromExternal
+            );
+            assertTrue(failure.getMessage().startsWith("Skipped 2 malformed"));
+            assertTrue(failure.getMessage().contains("line 2"));
+            assertTrue(failure.getMessage().contains("line 3"));
+            assertEquals(Set.of("First", "Third"), titles(recovered));
+            assertEquals(written, Files.size(journalFile));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void replaysARotatedJournalBeforeTheCurrentOne() throws Exception {
+        Path rotatedFile = directory.resolve("library.journal.old");
+        DVDLibraryJournalingDao older = open();
+        older.addDVD(dvd("First", 3));
+        older.addDVD(dvd("Second", 4));
+        older.close();
+        Files.move(journalFile, rotatedFile);
+
+        DVDLibraryJournalingDao newer = open();
+        newer.saveDVD(dvd("First", 5));
+        newer.removeDVD("Second");
+        newer.close();
+
+        DVDLibraryJournalingDao recovered = open();
+        try {
+            assertEquals(Set.of("First"), titles(recovered));
+            assertEquals(5, recovered.getDVDByTitle("First").get().getRating());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void rejectsDVDsWhoseEntryWouldNotParseBack() throws Exception {
+        DVDLibraryJournalingDao journaling = open();
+        try {
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> journaling.addDVD(dvd("Before::After", 3))
+            );
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> journaling.addDVD(dvd("Two\nLines", 3))
+            );
+            assertTrue(journaling.getAllDVDs().isEmpty());
+        } finally {
+            journaling.close();
+        }
+    }
+
+    private DVDLibraryJournalingDao open() throws DVDLibraryDaoException {
+        DVDLibraryJournalingDao journaling = new DVDLibraryJournalingDao(
+            new DVDLibraryConcurrentDaoImpl(snapshotFile.toString()), journalFile
+        );
+        journaling.loadDVDsFromExternal();
+        return journaling;
+    }
+
+    private static Set<String> titles(DVDLibraryDao dao) {
+        return dao.getAllDVDs().stream()
+            .map(DVD::getTitle)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static DVD dvd(String title, int rating) {
+        return DVD.builder(title)
+            .releaseDate(LocalDate.of(2001, 7, 20))
+            .mpaaRating(MpaaRating.PG)
+            .directorName("Hayao Miyazaki")
+            .studio("Studio Ghibli")
+            .rating(rating)
+            .note("")
+            .build();
+    }
+}
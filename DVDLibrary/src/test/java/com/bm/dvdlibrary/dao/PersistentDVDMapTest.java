@@ -0,0 +1,121 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Test the persistent DVD map against a HashMap
+ */
+
+package com.bm.dvdlibrary.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Applies the same random puts and removes to a PersistentDVDMap and a
+ * HashMap and expects them to agree throughout
+ *
+ * @author agent
+ */
+class PersistentDVDMapTest {
+    private static final int OPERATIONS = 20_000;
+
+    @Test
+    void agreesWithAHashMapOnDistinctTitles() {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            titles.add("Title " + i);
+        }
+        checkAgainstHashMap(titles, new Random(17));
+    }
+
+    @Test
+    void agreesWithAHashMapOnCollidingTitles() {
+        // "Aa" and "BB" share a hash code, so all 256 of these titles do
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int bit = 0; bit < 8; bit++) {
+                title.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+            }
+            titles.add(title.toString());
+        }
+        titles.add("Unrelated");
+        checkAgainstHashMap(titles, new Random(23));
+    }
+
+    @Test
+    void keepsEarlierVersionsUnchanged() {
+        PersistentDVDMap first = PersistentDVDMap.EMPTY.put(dvd("AaAa", 1));
+        PersistentDVDMap second = first.put(dvd("BBBB", 2)).put(dvd("AaAa", 3));
+        PersistentDVDMap third = second.remove("AaAa");
+
+        assertEquals(1, first.size());
+        assertEquals(1, first.get("AaAa").getRating());
+        assertEquals(null, first.get("BBBB"));
+        assertEquals(2, second.size());
+        assertEquals(3, second.get("AaAa").getRating());
+        assertEquals(1, third.size());
+        assertEquals(null, third.get("AaAa"));
+        assertSame(third, third.remove("Missing"));
+    }
+
+    private static void checkAgainstHashMap(List<String> titles, Random random) {
+        PersistentDVDMap map = PersistentDVDMap.EMPTY;
+        Map<String, DVD> reference = new HashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            String title = titles.get(random.nextInt(titles.size()));
+            if (random.nextInt(3) == 0) {
+                map = map.remove(title);
+                reference.remove(title);
+            } else {
+                DVD dvd = dvd(title, random.nextInt(11));
+                map = map.put(dvd);
+                reference.put(title, dvd);
+            }
+            assertEquals(reference.size(), map.size());
+            assertSame(reference.get(title), map.get(title));
+            if (i % 1_000 == 0) {
+                assertSameContents(reference, map);
+            }
+        }
+        assertSameContents(reference, map);
+
+        for (String title : titles) {
+            map = map.remove(title);
+        }
+        assertSame(PersistentDVDMap.EMPTY, map);
+    }
+
+    private static void assertSameContents(Map<String, DVD> reference, PersistentDVDMap map) {
+        Map<String, DVD> iterated = new HashMap<>();
+        for (DVD dvd : map) {
+            assertEquals(null, iterated.put(dvd.getTitle(), dvd));
+        }
+        assertEquals(reference, iterated);
+        for (Map.Entry<String, DVD> entry : reference.entrySet()) {
+            assertSame(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    private static DVD dvd(String title, int rating) {
+        return DVD.builder(title)
+            .releaseDate(LocalDate.of(1999, 3, 31))
+            .mpaaRating(MpaaRating.R)
+            .directorName("Lana Wachowski")
+            .studio("Warner Bros.")
+            .rating(rating)
+            .note("")
+            .build();
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Run the benchmarks with allocation profiling
+ */
+
+package com.bm.dvdlibrary.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected on the command line, which takes the usual
+ * JMH options, always adding the GC profiler so that every result reports
+ * the allocation rate alongside the throughput or time, e.g.
+ *
+ * java -jar target/benchmarks.jar QueryBenchmark -p records=100000
+ *
+ * @author agent
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args)
+        throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build()
+        ).run();
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Generate synthetic DVD libraries of any size
+ */
+
+package com.bm.dvdlibrary.benchmarks;
+
+import com.bm.dvdlibrary.dao.DVDTextFileWriter;
+import com.bm.dvdlibrary.dto.DVD;
+import com.bm.dvdlibrary.dto.MpaaRating;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Writes "::" delimited DVD libraries of synthetic but plausibly shaped
+ * records: unique titles of a few words, directors and studios drawn from
+ * pools that grow with the library, and notes of up to a dozen words.
+ *
+ * The same count and seed always produce the same file. Records are
+ * generated as they are written, so libraries far larger than the heap
+ * can be produced
+ *
+ * @author agent
+ */
+public class DVDFileGenerator {
+    private static final String[] WORDS = {
+        "night", "city", "dragon", "house", "return", "last", "shadow", "river",
+        "blood", "summer", "king", "ghost", "iron", "garden", "storm", "chamber",
+        "dream", "road", "silent", "winter", "golden", "lost", "fist", "empire",
+        "good", "fight", "scene", "boring", "party", "funny", "classic", "score"
+    };
+    private static final MpaaRating[] MPAA_RATINGS = MpaaRating.values();
+    private static final long EARLIEST_RELEASE = LocalDate.of(1920, 1, 1).toEpochDay();
+    private static final int RELEASE_SPAN_DAYS = 105 * 365;
+
+    private final int count;
+    private final long seed;
+
+    /**
+     * Creates a new generator of libraries holding the given number of
+     * DVDs, randomized by the given seed
+     *
+     * @param count
+     * @param seed
+     */
+    public DVDFileGenerator(int count, long seed) {
+        this.count = count;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes the library to the given file, replacing it
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void writeTo(Path file) throws IOException {
+        new DVDTextFileWriter().write(file, this::dvds);
+    }
+
+    /**
+     * Obtains the title the DVD at the given position in the library has
+     *
+     * @param position
+     * @return The aforementioned title
+     */
+    public static String titleOf(int position) {
+        return WORDS[position % WORDS.length] + " "
+            + WORDS[(position / WORDS.length) % WORDS.length] + " " + position;
+    }
+
+    private Iterator<DVD> dvds() {
+        SplittableRandom random = new SplittableRandom(seed);
+        int directors = Math.max(10, count / 20);
+        int studios = Math.max(5, count / 200);
+        return new Iterator<DVD>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < count;
+            }
+
+            @Override
+            public DVD next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                StringBuilder note = new StringBuilder();
+                int noteWords = random.nextInt(13);
+                for (int i = 0; i < noteWords; i++) {
+                    if (i > 0) {
+                        note.append(' ');
+                    }
+                    note.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                return DVD.builder(titleOf(position++))
+                    .releaseEpochDay(
+                        (int) (EARLIEST_RELEASE + random.nextInt(RELEASE_SPAN_DAYS))
+                    )
+                    .mpaaRating(MPAA_RATINGS[random.nextInt(MPAA_RATINGS.length)])
+                    .directorName("Director " + random.nextInt(directors))
+                    .studio("Studio " + random.nextInt(studios))
+                    .rating(random.nextInt(11))
+                    .note(note.toString())
+                    .build();
+            }
+        };
+    }
+
+    /**
+     * Generates a library from the command line:
+     * DVDFileGenerator file count [seed]
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DVDFileGenerator <file> <count> [seed]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        int count = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        new DVDFileGenerator(count, seed).writeTo(file);
+        System.out.println("Wrote " + count + " DVDs (" + Files.size(file) + " bytes) to " + file);
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Provide benchmarks with generated libraries and DAOs over them
+ */
+
+package com.bm.dvdlibrary.benchmarks;
+
+import com.bm.dvdlibrary.dao.DVDLibraryConcurrentDaoImpl;
+import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoImpl;
+import com.bm.dvdlibrary.dao.DVDLibraryIndexedDao;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A generated library of the benchmarked size, and a DAO of the
+ * benchmarked kind loaded from a private copy of it.
+ *
+ * Generated libraries are kept in the temporary directory and reused by
+ * later runs. The 10M record scale is not run by default; pass
+ * "-p records=10000000" (and a heap of several GB) to include it
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+    private static final long SEED = 42;
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    /**
+     * "plain" for DVDLibraryDaoImpl, "concurrent" for
+     * DVDLibraryConcurrentDaoImpl, or "indexed" for DVDLibraryIndexedDao
+     * over DVDLibraryDaoImpl
+     */
+    @Param({"plain", "concurrent", "indexed"})
+    public String dao;
+
+    public Path libraryFile;
+    public Path workingFile;
+    public DVDLibraryDao loadedDao;
+
+    @Setup
+    public void setUp() throws IOException, DVDLibraryDaoException {
+        libraryFile = generatedLibrary(records);
+        workingFile = Files.createTempFile("dvdlibrary-bench-", ".txt");
+        workingFile.toFile().deleteOnExit();
+        Files.copy(libraryFile, workingFile, StandardCopyOption.REPLACE_EXISTING);
+        loadedDao = newDao(dao, workingFile);
+        loadedDao.loadDVDsFromExternal();
+    }
+
+    /**
+     * Creates a DAO of the given kind over the given file, without loading it
+     *
+     * @param kind
+     * @param file
+     * @return The aforementioned DAO
+     */
+    public static DVDLibraryDao newDao(String kind, Path file) {
+        switch (kind) {
+            case "plain":
+                return new DVDLibraryDaoImpl(file.toString());
+            case "concurrent":
+                return new DVDLibraryConcurrentDaoImpl(file.toString());
+            case "indexed":
+                return new DVDLibraryIndexedDao(new DVDLibraryDaoImpl(file.toString()));
+            default:
+                throw new IllegalArgumentException("Unknown DAO kind " + kind);
+        }
+    }
+
+    /**
+     * Obtains a library of the given size, generating it if no earlier run
+     * already did
+     *
+     * @param records
+     * @return The file holding the library
+     * @throws IOException
+     */
+    public static Path generatedLibrary(int records) throws IOException {
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "dvdlibrary-bench");
+        Files.createDirectories(directory);
+        Path file = directory.resolve("dvds-" + records + "-" + SEED + ".txt");
+        if (!Files.exists(file)) {
+            Path partial = directory.resolve(file.getFileName() + ".partial");
+            new DVDFileGenerator(records, SEED).writeTo(partial);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+}
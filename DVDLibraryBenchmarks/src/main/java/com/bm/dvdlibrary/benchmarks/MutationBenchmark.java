@@ -0,0 +1,89 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Benchmark a mix of reads and writes against a loaded library
+ */
+
+package com.bm.dvdlibrary.benchmarks;
+
+import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a mix of 70% lookups, 10% edits, 10% additions and 10%
+ * removals of earlier additions, so the library keeps its size.
+ *
+ * Runs on one thread by default, since the plain DAO is not thread-safe;
+ * the concurrent and indexed DAOs can be measured under contention with
+ * "-t" and "-p dao=concurrent,indexed"
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(1)
+public class MutationBenchmark {
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    /**
+     * The random choices and the DVDs added but not yet removed by one thread
+     */
+    @State(Scope.Thread)
+    public static class Mix {
+        private final int id = THREAD_IDS.incrementAndGet();
+        private final SplittableRandom random = new SplittableRandom(id);
+        private final String titlePrefix = "added " + id + " ";
+        private long added;
+        private long removed;
+        private DVD template;
+
+        @Setup
+        public void setUp(LibraryState state) {
+            template = state.loadedDao.getDVDByTitle(DVDFileGenerator.titleOf(0))
+                .orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Optional<DVD> mix(LibraryState state, Mix mix) {
+        DVDLibraryDao dao = state.loadedDao;
+        int choice = mix.random.nextInt(10);
+        if (choice < 7) {
+            return dao.getDVDByTitle(DVDFileGenerator.titleOf(mix.random.nextInt(state.records)));
+        }
+        if (choice == 7) {
+            Optional<DVD> original = dao.getDVDByTitle(
+                DVDFileGenerator.titleOf(mix.random.nextInt(state.records))
+            );
+            return original.flatMap(dvd -> dao.saveDVD(
+                dvd.toBuilder().rating(mix.random.nextInt(11)).build()
+            ));
+        }
+        if (choice == 8 || mix.removed == mix.added) {
+            return dao.addDVD(
+                mix.template.toBuilder().title(mix.titlePrefix + mix.added++).build()
+            );
+        }
+        return dao.removeDVD(mix.titlePrefix + mix.removed++);
+    }
+}
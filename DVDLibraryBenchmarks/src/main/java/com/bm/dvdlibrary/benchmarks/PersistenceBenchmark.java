@@ -0,0 +1,45 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Benchmark loading and saving whole libraries
+ */
+
+package com.bm.dvdlibrary.benchmarks;
+
+import com.bm.dvdlibrary.dao.DVDLibraryDao;
+import com.bm.dvdlibrary.dao.DVDLibraryDaoException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loadDVDsFromExternal() into a fresh DAO, and
+ * saveDVDsToExternal() of a loaded one, for each library size and DAO kind
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PersistenceBenchmark {
+    @Benchmark
+    public DVDLibraryDao load(LibraryState state) throws DVDLibraryDaoException {
+        DVDLibraryDao dao = LibraryState.newDao(state.dao, state.libraryFile);
+        dao.loadDVDsFromExternal();
+        return dao;
+    }
+
+    @Benchmark
+    public void save(LibraryState state) throws DVDLibraryDaoException {
+        state.loadedDao.saveDVDsToExternal();
+    }
+}
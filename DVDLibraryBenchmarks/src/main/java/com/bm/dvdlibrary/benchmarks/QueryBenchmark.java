@@ -0,0 +1,65 @@
+/**
+ *
+ * @author agent
+ * email: agent@local
+ * date: Oct 18, 2026
+ * purpose: Benchmark lookups and listings of a loaded library
+ */
+
+package com.bm.dvdlibrary.benchmarks;
+
+import com.bm.dvdlibrary.dao.DVDSortKey;
+import com.bm.dvdlibrary.dto.DVD;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures point lookups of titles that are and are not in the library,
+ * and listing the whole library, streamed, copied or one page at a time
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class QueryBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Benchmark
+    public Optional<DVD> lookupHit(LibraryState state) {
+        int position = ThreadLocalRandom.current().nextInt(state.records);
+        return state.loadedDao.getDVDByTitle(DVDFileGenerator.titleOf(position));
+    }
+
+    @Benchmark
+    public Optional<DVD> lookupMiss(LibraryState state) {
+        int position = state.records + ThreadLocalRandom.current().nextInt(state.records);
+        return state.loadedDao.getDVDByTitle(DVDFileGenerator.titleOf(position));
+    }
+
+    @Benchmark
+    public List<DVD> listAll(LibraryState state) {
+        return state.loadedDao.getAllDVDs();
+    }
+
+    @Benchmark
+    public long streamAll(LibraryState state) {
+        return state.loadedDao.streamDVDs().mapToInt(DVD::getRating).sum();
+    }
+
+    @Benchmark
+    public List<DVD> firstPage(LibraryState state) {
+        return state.loadedDao.getDVDPage(null, PAGE_SIZE, DVDSortKey.TITLE);
+    }
+}